@@ -0,0 +1,68 @@
+package benchmarks;
+
+import main.*;
+import org.openjdk.jmh.annotations.*;
+import tests.StringState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the search primitives of the bitboard backend: move generation, make/unmake
+ * and a small perft, which mixes both the way a search does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+
+    private static final String MIDDLE_GAME = """
+            -- Bp -- -- -- Bp -- Bp
+            -- -- Wp -- Wp -- -- --
+            -- -- -- Bp -- Bp -- --
+            -- -- -- -- -- -- -- --
+            -- Wp -- Wp -- Bp -- Wp
+            -- -- -- -- -- -- -- --
+            -- -- -- Bp -- Bp -- Bp
+            Wp -- -- -- -- -- -- --
+            """;
+
+    @Param({"Initial", "MiddleGame"})
+    private String position;
+
+    private GameState state;
+    private GameMoveList moves;
+    private GamePerft perft;
+
+    @Setup
+    public void setUp() {
+        state = position.equals("Initial") ? GameState.create(GameState.Backend.Bitboard)
+                : GameState.create(GameState.Backend.Bitboard, new GameState.Initializer(
+                        new StringState(MIDDLE_GAME).getState(), GamePlayerType.White));
+        moves = new GameMoveList();
+        perft = new GamePerft(state, 4);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return state.generateMoves(moves);
+    }
+
+    @Benchmark
+    public int makeUnmakeAllMoves() {
+        int amount = state.generateMoves(moves);
+        for (int i = 0; i < amount; i++) {
+            long move = moves.get(i);
+            state.unmakeMove(move, state.makeMove(move));
+        }
+        return amount;
+    }
+
+    @Benchmark
+    public long perft4() {
+        return perft.perft(4);
+    }
+
+}
@@ -0,0 +1,99 @@
+package benchmarks;
+
+import main.*;
+import org.openjdk.jmh.annotations.*;
+import tests.StringState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how GameParallelSearch scales with the amount of threads: the time to complete
+ * the search to the fixed depth (timeToDepth) and the searched nodes per second, reported
+ * by the "nodes" counter of nodesPerSecond, which runs in the throughput mode. Every search
+ * starts with the empty transposition table.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameSearchBenchmark {
+
+    private static final int DEPTH = 10;
+    private static final int TABLE_SIZE = 1 << 20;
+    private static final String MIDDLE_GAME = """
+            -- Bp -- -- -- Bp -- Bp
+            -- -- Wp -- Wp -- -- --
+            -- -- -- Bp -- Bp -- --
+            -- -- -- -- -- -- -- --
+            -- Wp -- Wp -- Bp -- Wp
+            -- -- -- -- -- -- -- --
+            -- -- -- Bp -- Bp -- Bp
+            Wp -- -- -- -- -- -- --
+            """;
+    private static final String QUEENS = """
+            -- -- -- -- -- -- -- --
+            Bp -- -- -- Bp -- -- --
+            -- -- -- Wp -- -- -- --
+            -- -- -- -- -- -- Bp --
+            -- -- -- -- -- Wp -- --
+            -- -- -- -- Bp -- Bq --
+            -- Wq -- Bp -- -- -- Wp
+            -- -- -- -- -- -- -- --
+            """;
+
+    /**
+     * Searched nodes, reported by JMH per second in the throughput mode.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            nodes = 0;
+        }
+    }
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"Initial", "MiddleGame", "Queens"})
+    private String position;
+
+    private GameTranspositionTable table;
+    private GameParallelSearch search;
+
+    @Setup
+    public void setUp() {
+        GameBitboardState state = switch (position) {
+            case "Initial" -> new GameBitboardState();
+            case "MiddleGame" -> new GameBitboardState(new StringState(MIDDLE_GAME).getState(), GamePlayerType.White);
+            default -> new GameBitboardState(new StringState(QUEENS).getState(), GamePlayerType.White);
+        };
+        table = new GameTranspositionTable(TABLE_SIZE);
+        search = new GameParallelSearch(state, table, new GameHistory(), threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public GameSearchResult timeToDepth() {
+        return search.search(TimeUnit.HOURS.toMillis(1), DEPTH);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public GameSearchResult nodesPerSecond(Nodes counter) {
+        GameSearchResult result = search.search(TimeUnit.HOURS.toMillis(1), DEPTH);
+        counter.nodes += result.nodes();
+        return result;
+    }
+
+}
@@ -0,0 +1,147 @@
+package benchmarks;
+
+import main.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tests.StringState;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the GameState API on both backends: processing a move, reading the whole board
+ * with 64 get calls or a single snapshot, parsing StringState positions and replaying whole
+ * games. The native variants need the Utp_Game_Project_Logic library on java.library.path.
+ * Run with the GC profiler (-prof gc) to see the allocation rate of GamePosition and
+ * GameMoveResult.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+
+    private static final int GAMES = 100;
+    private static final int MAX_GAME_LENGTH = 200;
+    private static final String POSITION = """
+            -- Bp -- -- -- Bp -- Bp
+            -- -- Wp -- Wp -- -- --
+            -- -- -- Bp -- Bp -- --
+            -- -- -- -- -- -- -- --
+            -- Wp -- Wp -- Bp -- Wp
+            -- -- -- -- -- -- -- --
+            -- -- -- Bp -- Bp -- Bp
+            Wp -- -- -- -- -- -- --
+            """;
+
+    @Param({"Bitboard", "Native"})
+    private String backend;
+
+    private GameState state;
+    private GamePosition[] tiles;
+    private GamePosition[][] games;
+    private short[][] packedGames;
+    private final long[] results = new long[MAX_GAME_LENGTH];
+    private final byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+
+    @Setup
+    public void setUp() {
+        state = GameState.create(GameState.Backend.valueOf(backend));
+        tiles = new GamePosition[64];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = GamePosition.of(i);
+        }
+        games = recordGames(new Random(42));
+        packedGames = new short[GAMES][];
+        for (int i = 0; i < GAMES; i++) {
+            packedGames[i] = new short[games[i].length / 2];
+            for (int j = 0; j < packedGames[i].length; j++) {
+                packedGames[i][j] = (short) (games[i][2 * j].getIndex(8)
+                        | games[i][2 * j + 1].getIndex(8) << 6);
+            }
+        }
+    }
+
+    /**
+     * Plays random games on the bitboard backend and records them as pairs of from/to
+     * positions accepted by process.
+     */
+    private static GamePosition[][] recordGames(Random random) {
+        GamePosition[][] games = new GamePosition[GAMES][];
+        GameMoveList moves = new GameMoveList();
+        for (int i = 0; i < GAMES; i++) {
+            GameState recorder = GameState.create(GameState.Backend.Bitboard);
+            GamePosition[] game = new GamePosition[MAX_GAME_LENGTH * 2];
+            int length = 0;
+            while (length < game.length && recorder.generateMoves(moves) > 0) {
+                long move = moves.get(random.nextInt(moves.size()));
+                game[length++] = GameMove.fromPosition(move);
+                game[length++] = GameMove.toPosition(move);
+                var result = recorder.process(game[length - 2], game[length - 1]);
+                if (result.winner() != GamePlayerType.None) break;
+            }
+            games[i] = Arrays.copyOf(game, length);
+        }
+        return games;
+    }
+
+    @Benchmark
+    public GameMoveResult processOpeningMove() {
+        state.reset();
+        return state.process(tiles[5 * 8 + 2], tiles[4 * 8 + 3]);
+    }
+
+    @Benchmark
+    public void readBoard(Blackhole blackhole) {
+        for (GamePosition tile : tiles) {
+            blackhole.consume(state.get(tile));
+        }
+    }
+
+    @Benchmark
+    public void readBoardAllocating(Blackhole blackhole) {
+        for (int i = 0; i < 64; i++) {
+            blackhole.consume(state.get(new GamePosition(i / 8, i % 8)));
+        }
+    }
+
+    @Benchmark
+    public byte[] readBoardSnapshot() {
+        state.snapshot(snapshot);
+        return snapshot;
+    }
+
+    @Benchmark
+    public StringState parseStringState() {
+        return new StringState(POSITION);
+    }
+
+    /**
+     * Replays all the recorded games, reported per game.
+     */
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public void replayGames(Blackhole blackhole) {
+        for (GamePosition[] game : games) {
+            state.reset();
+            for (int i = 0; i < game.length; i += 2) {
+                blackhole.consume(state.process(game[i], game[i + 1]));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int replayGamesBatch() {
+        int processed = 0;
+        for (short[] game : packedGames) {
+            state.reset();
+            processed += state.processBatch(game, 0, game.length, results);
+        }
+        return processed;
+    }
+
+}
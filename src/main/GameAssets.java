@@ -0,0 +1,82 @@
+package main;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Loads the images of the game from the classpath (or the resource directory of the project,
+ * when it isn't on the classpath). All the images are read in parallel off the event dispatch
+ * thread and handed over to the board one by one as they are ready, so the board is shown
+ * at once with placeholders drawn by GameSpriteCache.
+ */
+public class GameAssets {
+
+    private static final String DIRECTORY = "resource/";
+    private static final String ICON = "icon.png";
+
+    // Accessed on the event dispatch thread only
+    private final Map<GamePawnType, BufferedImage> images = new EnumMap<>(GamePawnType.class);
+
+    public Map<GamePawnType, BufferedImage> getImages() {
+        return images;
+    }
+
+    /**
+     * Starts loading the pawns and the icon of the window. The listener is called on the event
+     * dispatch thread after each pawn image is added.
+     */
+    public void load(JFrame frame, Runnable listener) {
+        ImageIO.setUseCache(false);
+        for (GamePawnType type : GamePawnType.values()) {
+            String name = getFileName(type);
+            if (name == null) continue;
+            loadAsync(frame, name, image -> {
+                images.put(type, image);
+                listener.run();
+            });
+        }
+        loadAsync(frame, ICON, frame::setIconImage);
+    }
+
+    private static String getFileName(GamePawnType type) {
+        return switch(type) {
+            case WhitePawn -> "white.png";
+            case BlackPawn -> "black.png";
+            case WhiteQueen -> "white-queen.png";
+            case BlackQueen -> "black-queen.png";
+            case Blank -> null;
+        };
+    }
+
+    /**
+     * Reads the image on the common pool and passes it to the consumer on the event dispatch
+     * thread. Failure is reported with the dialog and the placeholder stays in use.
+     */
+    private static void loadAsync(JFrame frame, String name, Consumer<BufferedImage> consumer) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                BufferedImage image = read(name);
+                SwingUtilities.invokeLater(() -> consumer.accept(image));
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(frame,
+                        "Couldn't load the game picture (" + DIRECTORY + name + ")."));
+            }
+        });
+    }
+
+    static BufferedImage read(String name) throws IOException {
+        URL url = GameAssets.class.getResource("/" + DIRECTORY + name);
+        BufferedImage image = url != null ? ImageIO.read(url) : ImageIO.read(new File(DIRECTORY + name));
+        if (image == null) throw new IOException("Unknown image format - " + name);
+        return image;
+    }
+
+}
@@ -0,0 +1,505 @@
+package main;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Pure-Java implementation of the game rules described in Main, which doesn't need the native
+ * library. The board is held in three bitboards - white pieces, black pieces and queens of both
+ * colors - where the bit (row * 8 + col) stands for the tile at the given position. Like the
+ * native module it accepts pieces on any tile (diagonal moves keep them on the tiles of the same
+ * color), and apart from the returned result processing a move doesn't allocate.
+ */
+public class GameBitboardState extends GameState {
+
+    static final int UP_LEFT = 0;
+    static final int UP_RIGHT = 1;
+    static final int DOWN_LEFT = 2;
+    static final int DOWN_RIGHT = 3;
+
+    static final long WHITE_PROMOTION = 0xFFL;
+    static final long BLACK_PROMOTION = 0xFFL << 56;
+    static final long NOT_FIRST_COLUMN = ~0x0101010101010101L;
+    static final long NOT_LAST_COLUMN = ~0x8080808080808080L;
+
+    /**
+     * Neighbouring tile in the given direction or -1 if it is outside the board.
+     */
+    static final int[][] STEP = new int[4][64];
+
+    /**
+     * Random keys of the pieces (white pawn, white queen, black pawn, black queen) on every tile
+     * and of the white's turn, which XORed together give the Zobrist hash of the position.
+     */
+    static final long[][] ZOBRIST = new long[4][64];
+    static final long ZOBRIST_WHITE_TURN;
+
+    private static final GamePawnType[] TYPES = GamePawnType.values();
+    private static final byte WHITE_PAWN = (byte) GamePawnType.WhitePawn.ordinal();
+    private static final byte BLACK_PAWN = (byte) GamePawnType.BlackPawn.ordinal();
+    private static final byte WHITE_QUEEN = (byte) GamePawnType.WhiteQueen.ordinal();
+    private static final byte BLACK_QUEEN = (byte) GamePawnType.BlackQueen.ordinal();
+    private static final byte BLANK = (byte) GamePawnType.Blank.ordinal();
+
+    private static final int MAX_CHAIN = 64;
+    private static final GamePosition[] NO_PAWNS = new GamePosition[0];
+
+    static {
+        for (int i = 0; i < 64; i++) {
+            int row = i / 8;
+            int col = i % 8;
+            STEP[UP_LEFT][i] = row > 0 && col > 0 ? i - 9 : -1;
+            STEP[UP_RIGHT][i] = row > 0 && col < 7 ? i - 7 : -1;
+            STEP[DOWN_LEFT][i] = row < 7 && col > 0 ? i + 7 : -1;
+            STEP[DOWN_RIGHT][i] = row < 7 && col < 7 ? i + 9 : -1;
+        }
+        // Fixed seed keeps the hashes stable between runs, so they can be stored
+        SplittableRandom random = new SplittableRandom(0x436865636B657273L);
+        for (long[] keys : ZOBRIST) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+        ZOBRIST_WHITE_TURN = random.nextLong();
+    }
+
+    long white;
+    long black;
+    long queens;
+    boolean isWhiteTurn;
+    long hash;
+
+    // Scratch space of the capture chain search used by process
+    private final int[] chain = new int[MAX_CHAIN];
+    private final int[] bestChain = new int[MAX_CHAIN];
+    private int bestLength;
+
+    public GameBitboardState() {
+        super(Backend.Bitboard);
+        init();
+    }
+
+    public GameBitboardState(GamePawnType[] state, GamePlayerType currentPlayer) {
+        super(Backend.Bitboard);
+        init(state, currentPlayer);
+    }
+
+    public GameBitboardState(Initializer initializer) { this(initializer.state(), initializer.player()); }
+
+    /**
+     * Recreates the state from the snapshot of any backend (see GameState.snapshot).
+     */
+    public GameBitboardState(byte[] snapshot) {
+        super(Backend.Bitboard);
+        GamePawnType[] state = new GamePawnType[64];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = TYPES[snapshot[i]];
+        }
+        init(state, GamePlayerType.values()[snapshot[SNAPSHOT_PLAYER]]);
+    }
+
+    /**
+     * Returns the bit index of the position or -1 if it is outside the board.
+     */
+    static int square(GamePosition position) {
+        if (position == null || !GamePosition.isOnBoard(position.row(), position.col())) return -1;
+        return position.square();
+    }
+
+    @Override
+    public void init() {
+        black = 0x0000000000AA55AAL;
+        white = 0x55AA550000000000L;
+        queens = 0;
+        isWhiteTurn = true;
+        hash = computeHash();
+    }
+
+    @Override
+    public void init(GamePawnType[] state, GamePlayerType currentPlayer) {
+        white = 0;
+        black = 0;
+        queens = 0;
+        for (int i = 0; i < state.length && i < 64; i++) {
+            long bit = 1L << i;
+            switch (state[i]) {
+                case WhitePawn -> white |= bit;
+                case BlackPawn -> black |= bit;
+                case WhiteQueen -> { white |= bit; queens |= bit; }
+                case BlackQueen -> { black |= bit; queens |= bit; }
+                case Blank -> {}
+            }
+        }
+        isWhiteTurn = currentPlayer != GamePlayerType.Black;
+        hash = computeHash();
+    }
+
+    /**
+     * Puts the state into the position given by its bitboards.
+     */
+    void init(long white, long black, long queens, boolean isWhiteTurn) {
+        this.white = white;
+        this.black = black;
+        this.queens = queens;
+        this.isWhiteTurn = isWhiteTurn;
+        hash = computeHash();
+    }
+
+    @Override
+    public void reset() {
+        init();
+    }
+
+    @Override
+    public GamePawnType get(GamePosition position) {
+        int square = square(position);
+        return square < 0 ? GamePawnType.Blank : TYPES[getTile(square)];
+    }
+
+    @Override
+    public GamePawnType get(int square) {
+        return TYPES[getTile(square)];
+    }
+
+    /**
+     * Returns the ordinal of GamePawnType standing on the tile.
+     */
+    private byte getTile(int square) {
+        long bit = 1L << square;
+        boolean isQueen = (queens & bit) != 0;
+        if ((white & bit) != 0) return isQueen ? WHITE_QUEEN : WHITE_PAWN;
+        if ((black & bit) != 0) return isQueen ? BLACK_QUEEN : BLACK_PAWN;
+        return BLANK;
+    }
+
+    @Override
+    public void snapshot(byte[] target) {
+        for (int i = 0; i < 64; i++) {
+            target[i] = getTile(i);
+        }
+        target[SNAPSHOT_PLAYER] = (byte) getCurrentPlayer().ordinal();
+        target[SNAPSHOT_WHITE_PAWNS] = (byte) getWhitePawnsAmount();
+        target[SNAPSHOT_BLACK_PAWNS] = (byte) getBlackPawnsAmount();
+    }
+
+    @Override
+    public void snapshot(ByteBuffer target) {
+        int base = target.position();
+        for (int i = 0; i < 64; i++) {
+            target.put(base + i, getTile(i));
+        }
+        target.put(base + SNAPSHOT_PLAYER, (byte) getCurrentPlayer().ordinal());
+        target.put(base + SNAPSHOT_WHITE_PAWNS, (byte) getWhitePawnsAmount());
+        target.put(base + SNAPSHOT_BLACK_PAWNS, (byte) getBlackPawnsAmount());
+    }
+
+    @Override
+    public long getHash() {
+        return hash;
+    }
+
+    private long computeHash() {
+        long result = isWhiteTurn ? ZOBRIST_WHITE_TURN : 0;
+        for (long pieces = white | black; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long bit = 1L << square;
+            result ^= ZOBRIST[kind((white & bit) != 0, (queens & bit) != 0)][square];
+        }
+        return result;
+    }
+
+    private static int kind(boolean isWhite, boolean isQueen) {
+        return (isWhite ? 0 : 2) + (isQueen ? 1 : 0);
+    }
+
+    /**
+     * Returns the change of the hash made by the move of the current player, including
+     * the change of the turn. Applying it again takes the move back.
+     */
+    private long hashMove(long fromBit, long toBit, long captured, long capturedQueens,
+                          boolean isQueen, boolean isPromoted) {
+        long result = ZOBRIST[kind(isWhiteTurn, isQueen)][Long.numberOfTrailingZeros(fromBit)]
+                ^ ZOBRIST[kind(isWhiteTurn, isQueen || isPromoted)][Long.numberOfTrailingZeros(toBit)]
+                ^ ZOBRIST_WHITE_TURN;
+        for (; captured != 0; captured &= captured - 1) {
+            int square = Long.numberOfTrailingZeros(captured);
+            result ^= ZOBRIST[kind(!isWhiteTurn, (capturedQueens & (1L << square)) != 0)][square];
+        }
+        return result;
+    }
+
+    @Override
+    public GamePlayerType getCurrentPlayer() {
+        return isWhiteTurn ? GamePlayerType.White : GamePlayerType.Black;
+    }
+
+    @Override
+    public int getWhitePawnsAmount() {
+        return Long.bitCount(white);
+    }
+
+    @Override
+    public int getBlackPawnsAmount() {
+        return Long.bitCount(black);
+    }
+
+    @Override
+    public GameMoveResult process(GamePosition from, GamePosition to) {
+        long result = process(square(from), square(to));
+        if (!GameMoveResult.isCorrect(result)) {
+            return new GameMoveResult(false, false, NO_PAWNS, GamePlayerType.None,
+                    GameMoveResult.message(result));
+        }
+        GamePosition[] takenPawns = bestLength == 0 ? NO_PAWNS : new GamePosition[bestLength];
+        for (int i = 0; i < bestLength; i++) {
+            takenPawns[i] = GamePosition.of(bestChain[i]);
+        }
+        return new GameMoveResult(true, GameMoveResult.isQueen(result), takenPawns,
+                GameMoveResult.winner(result), "");
+    }
+
+    @Override
+    public long processPacked(GamePosition from, GamePosition to) {
+        return process(square(from), square(to));
+    }
+
+    @Override
+    public int processBatch(short[] moves, int offset, int length, long[] results) {
+        for (int i = 0; i < length; i++) {
+            int move = moves[offset + i];
+            long result = process(move & 0x3F, (move >>> 6) & 0x3F);
+            results[i] = result;
+            if (!GameMoveResult.isCorrect(result)
+                    || GameMoveResult.winner(result) != GamePlayerType.None) return i + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Validates and plays the move between the tiles, returning the packed GameMoveResult.
+     * Captured pawns are left in bestChain in the order of capturing.
+     */
+    long process(int fromSquare, int toSquare) {
+        if (fromSquare < 0 || toSquare < 0) return GameMoveResult.packError(GameMoveResult.OUTSIDE);
+        long fromBit = 1L << fromSquare;
+        long toBit = 1L << toSquare;
+        long own = isWhiteTurn ? white : black;
+        long opponent = isWhiteTurn ? black : white;
+        if ((own & fromBit) == 0) {
+            return GameMoveResult.packError((opponent & fromBit) != 0
+                    ? GameMoveResult.WRONG_TURN : GameMoveResult.NO_PAWN);
+        }
+        long empty = ~(white | black) | fromBit;
+        if ((empty & toBit) == 0 || fromSquare == toSquare) {
+            return GameMoveResult.packError(GameMoveResult.FORBIDDEN);
+        }
+
+        boolean isQueen = (queens & fromBit) != 0;
+        bestLength = findSlide(fromSquare, toSquare, isQueen, opponent, empty);
+        if (bestLength < 0) {
+            bestLength = 0;
+            searchChain(fromSquare, toSquare, opponent, empty, 0, 0);
+            if (bestLength == 0) return GameMoveResult.packError(GameMoveResult.FORBIDDEN);
+        }
+
+        long captured = 0;
+        for (int i = 0; i < bestLength; i++) {
+            captured |= 1L << bestChain[i];
+        }
+        boolean isPromoted = !isQueen
+                && (toBit & (isWhiteTurn ? WHITE_PROMOTION : BLACK_PROMOTION)) != 0;
+        GamePlayerType winner = GamePlayerType.None;
+        if (captured != 0 && (opponent & ~captured) == 0) winner = getCurrentPlayer();
+        apply(fromBit, toBit, captured, isQueen, isPromoted);
+        return GameMoveResult.pack(GameMove.encode(fromSquare, toSquare, isPromoted, captured),
+                winner, GameMoveResult.CORRECT);
+    }
+
+    /**
+     * Checks the moves, which don't allow capture chains: single step forward of the pawn and
+     * the slide of the queen, which can capture a single distant opponent's pawn on the way.
+     * Returns the amount of captured pawns (stored in bestChain) or -1 if it's not such move.
+     */
+    private int findSlide(int from, int to, boolean isQueen, long opponent, long empty) {
+        if (!isQueen) {
+            int forward = isWhiteTurn ? UP_LEFT : DOWN_LEFT;
+            return STEP[forward][from] == to || STEP[forward + 1][from] == to ? 0 : -1;
+        }
+        for (int direction = 0; direction < 4; direction++) {
+            int square = STEP[direction][from];
+            while (square >= 0 && (empty & (1L << square)) != 0) {
+                if (square == to) return 0;
+                square = STEP[direction][square];
+            }
+            // Capture of the neighbouring pawn is handled by the chain search
+            if (square < 0 || square == STEP[direction][from]) continue;
+            if ((opponent & (1L << square)) != 0 && STEP[direction][square] == to) {
+                bestChain[0] = square;
+                return 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Searches for the longest chain of short captures ending at the target tile. Captured
+     * pawns stay on the board until the move ends, so they can't be jumped over twice.
+     */
+    private void searchChain(int square, int target, long opponent, long empty, long captured, int depth) {
+        for (int direction = 0; direction < 4; direction++) {
+            int over = STEP[direction][square];
+            if (over < 0) continue;
+            int landing = STEP[direction][over];
+            if (landing < 0) continue;
+            long overBit = 1L << over;
+            if ((opponent & ~captured & overBit) == 0 || (empty & (1L << landing)) == 0) continue;
+            chain[depth] = over;
+            if (landing == target && depth + 1 > bestLength) {
+                System.arraycopy(chain, 0, bestChain, 0, depth + 1);
+                bestLength = depth + 1;
+            }
+            searchChain(landing, target, opponent, empty, captured | overBit, depth + 1);
+        }
+    }
+
+    @Override
+    public int generateMoves(GameMoveList moves) {
+        moves.clear();
+        long own = isWhiteTurn ? white : black;
+        long opponent = isWhiteTurn ? black : white;
+        long empty = ~(white | black);
+        long promotion = isWhiteTurn ? WHITE_PROMOTION : BLACK_PROMOTION;
+
+        // Captures and queen slides need to be followed tile by tile. Like in process, the slide
+        // of the queen wins over the chain reaching the same tile and of the chains the first
+        // longest one is played, so every pair of tiles gives a single move.
+        for (long pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            long fromBit = 1L << from;
+            boolean isQueen = (queens & fromBit) != 0;
+            long targets = chainTargets(from, from, opponent, empty | fromBit, 0);
+            if (isQueen) targets &= ~generateSlides(moves, from, opponent, empty);
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                bestLength = 0;
+                searchChain(from, to, opponent, empty | fromBit, 0, 0);
+                long captured = 0;
+                for (int i = 0; i < bestLength; i++) {
+                    captured |= 1L << bestChain[i];
+                }
+                moves.add(GameMove.encode(from, to, !isQueen && ((1L << to) & promotion) != 0, captured));
+            }
+        }
+
+        // Single steps of all the pawns at once
+        long pawns = own & ~queens;
+        if (isWhiteTurn) {
+            addSteps(moves, ((pawns & NOT_FIRST_COLUMN) >>> 9) & empty, 9, promotion);
+            addSteps(moves, ((pawns & NOT_LAST_COLUMN) >>> 7) & empty, 7, promotion);
+        } else {
+            addSteps(moves, ((pawns & NOT_FIRST_COLUMN) << 7) & empty, -7, promotion);
+            addSteps(moves, ((pawns & NOT_LAST_COLUMN) << 9) & empty, -9, promotion);
+        }
+        return moves.size();
+    }
+
+    private static void addSteps(GameMoveList moves, long targets, int offset, long promotion) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(GameMove.encode(to + offset, to, ((1L << to) & promotion) != 0, 0));
+        }
+    }
+
+    /**
+     * Returns the tiles where the chains of short captures starting at the tile can end.
+     */
+    private static long chainTargets(int from, int square, long opponent, long empty, long captured) {
+        long targets = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            int over = STEP[direction][square];
+            if (over < 0) continue;
+            int landing = STEP[direction][over];
+            if (landing < 0) continue;
+            long overBit = 1L << over;
+            if ((opponent & ~captured & overBit) == 0 || (empty & (1L << landing)) == 0) continue;
+            // A chain can pass through its starting tile, but can't end there
+            if (landing != from) targets |= 1L << landing;
+            targets |= chainTargets(from, landing, opponent, empty, captured | overBit);
+        }
+        return targets;
+    }
+
+    /**
+     * Adds the slides of the queen and returns their target tiles.
+     */
+    private static long generateSlides(GameMoveList moves, int from, long opponent, long empty) {
+        long targets = 0;
+        for (int direction = 0; direction < 4; direction++) {
+            int square = STEP[direction][from];
+            while (square >= 0 && (empty & (1L << square)) != 0) {
+                moves.add(GameMove.encode(from, square, false, 0));
+                targets |= 1L << square;
+                square = STEP[direction][square];
+            }
+            if (square < 0 || square == STEP[direction][from]) continue;
+            int landing = STEP[direction][square];
+            if ((opponent & (1L << square)) != 0 && landing >= 0 && (empty & (1L << landing)) != 0) {
+                moves.add(GameMove.encode(from, landing, false, 1L << square));
+                targets |= 1L << landing;
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Plays the move without validating it. Returns the undo record - the captured queens -
+     * which together with the move is enough to take it back.
+     */
+    @Override
+    public long makeMove(long move) {
+        long fromBit = 1L << GameMove.from(move);
+        long toBit = 1L << GameMove.to(move);
+        long captured = GameMove.captured(move);
+        long undo = queens & captured;
+        apply(fromBit, toBit, captured, (queens & fromBit) != 0, GameMove.isPromotion(move));
+        return undo;
+    }
+
+    @Override
+    public void unmakeMove(long move, long undo) {
+        long fromBit = 1L << GameMove.from(move);
+        long toBit = 1L << GameMove.to(move);
+        long captured = GameMove.captured(move);
+        isWhiteTurn = !isWhiteTurn;
+        if (GameMove.isPromotion(move)) queens &= ~toBit;
+        else if ((queens & toBit) != 0) queens ^= fromBit | toBit;
+        if (isWhiteTurn) {
+            white ^= fromBit | toBit;
+            black |= captured;
+        } else {
+            black ^= fromBit | toBit;
+            white |= captured;
+        }
+        queens |= undo;
+        hash ^= hashMove(fromBit, toBit, captured, undo, (queens & fromBit) != 0, GameMove.isPromotion(move));
+    }
+
+    /**
+     * Moves the piece of the current player, removes the captured pieces and passes the turn.
+     */
+    private void apply(long fromBit, long toBit, long captured, boolean isQueen, boolean isPromoted) {
+        hash ^= hashMove(fromBit, toBit, captured, queens & captured, isQueen, isPromoted);
+        if (isWhiteTurn) {
+            white ^= fromBit | toBit;
+            black &= ~captured;
+        } else {
+            black ^= fromBit | toBit;
+            white &= ~captured;
+        }
+        queens &= ~captured;
+        if (isQueen) queens ^= fromBit | toBit;
+        if (isPromoted) queens |= toBit;
+        isWhiteTurn = !isWhiteTurn;
+    }
+
+}
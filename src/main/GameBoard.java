@@ -2,54 +2,188 @@ package main;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Displays the board of the game in application. Implements interface functionality.
+ * In the Components rendering every tile is a GameTile panel, kept indexed by
+ * GamePosition.getIndex, so they are found without scanning the components. In the Painted
+ * rendering the board paints the tiles, pawns and markers itself and repaints only the
+ * changed tiles.
  */
 public class GameBoard extends JPanel {
 
-    private final Map<GamePawnType, BufferedImage> assets;
+    /**
+     * Ways of displaying the board, which can be selected at the startup with the
+     * "game.rendering" system property (e.g. -Dgame.rendering=painted).
+     */
+    public enum Rendering {
+        Components, Painted;
+
+        public static Rendering fromProperty() {
+            String name = System.getProperty("game.rendering", Components.name());
+            for (Rendering rendering : values()) {
+                if (rendering.name().equalsIgnoreCase(name)) return rendering;
+            }
+            throw new RuntimeException("Unknown board rendering - " + name);
+        }
+    }
+
+    /**
+     * Highlights of the tile, combined into the flags kept by the board.
+     */
+    public static final int CURSOR = 1;
+    public static final int SELECTION = 2;
+    public static final int TARGET = 4;
+
+    private static final Color DARK = new Color(0xA8, 0x5D, 0x5D);
+    private static final Color LIGHT = new Color(0xFF, 0xD2, 0xA6);
+    private static final Color MARKER = new Color(0x55, 0xB2, 0xFF);
+    private static final Color TARGET_MARKER = new Color(0x55, 0xB2, 0xFF, 0x90);
+    private static final BasicStroke MARKER_STROKE = new BasicStroke(15);
+
+    private final GameAssets assets = new GameAssets();
+    private final GameSpriteCache sprites;
+    private final int size = 8;
+    private final Rendering rendering;
+    private final GameTile[] tiles = new GameTile[size * size];
+    private final byte[] highlights = new byte[size * size];
+    private final GamePawnType[] pawns = new GamePawnType[size * size];
 
     public GameBoard (JFrame frame) {
         super(new GridLayout(8, 8));
-        int size = 8;
-        GameState state = new GameState();
-        assets = new HashMap<>();
+        GameState state = GameState.create(GameState.Backend.fromProperty());
+        rendering = Rendering.fromProperty();
+        sprites = new GameSpriteCache(assets.getImages());
         GameController controller = new GameController(frame, this, state);
         GameKeyboard keyboard = new GameKeyboard(this, controller, size);
+        controller.setCursor(keyboard.getCursor());
 
-        // Adding tiles
-        for (int i = 0; i < size * size; i++) {
-            int row = i / size;
-            int col = i % size;
-            this.add(new GameTile(controller, keyboard.getCursor(), new GamePosition(row, col),
-                    (i + i / size) % 2 == 0 ? new Color(0xA8, 0x5D, 0x5D)
-                            : new Color(0xFF, 0xD2, 0xA6)));
+        Arrays.fill(pawns, GamePawnType.Blank);
+        if (rendering == Rendering.Components) {
+            // Adding tiles
+            for (int i = 0; i < size * size; i++) {
+                int row = i / size;
+                int col = i % size;
+                tiles[i] = new GameTile(controller, keyboard.getCursor(), GamePosition.of(row, col),
+                        (i + i / size) % 2 == 0 ? DARK : LIGHT);
+                this.add(tiles[i]);
+            }
+        } else {
+            setLayout(null);
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    int tileSize = getTileSize();
+                    if (tileSize == 0) return;
+                    int row = e.getY() / tileSize;
+                    int col = e.getX() / tileSize;
+                    if (row < size && col < size) controller.click(GamePosition.of(row, col));
+                }
+            });
         }
 
-        // Init pawns images
-        assets.put(GamePawnType.BlackPawn,
-                GamePawn.loadPawnImage(frame, GamePawnType.BlackPawn));
-        assets.put(GamePawnType.WhitePawn,
-                GamePawn.loadPawnImage(frame, GamePawnType.WhitePawn));
-        assets.put(GamePawnType.BlackQueen,
-                GamePawn.loadPawnImage(frame, GamePawnType.BlackQueen));
-        assets.put(GamePawnType.WhiteQueen,
-                GamePawn.loadPawnImage(frame, GamePawnType.WhiteQueen));
-        assets.put(GamePawnType.Blank, null);
+        // Pawns are drawn as placeholders until their images are loaded
+        assets.load(frame, () -> {
+            sprites.clear();
+            repaint();
+        });
 
         // Starting the game
+        controller.setComputerPlayer(GameComputerPlayer.fromProperties(frame));
         controller.start();
+        controller.requestComputerMove();
+    }
+
+    public void setPawn(int index, GamePawnType type) {
+        if (pawns[index] == type) return;
+        pawns[index] = type;
+        if (rendering == Rendering.Components) {
+            tiles[index].unsetPawn();
+            tiles[index].setPawn(new GamePawn(sprites, type));
+        } else {
+            repaintTile(index);
+        }
+    }
+
+    /**
+     * Shows or hides the highlight of the tile. Only the tile is repainted, nothing is added
+     * to the components or laid out.
+     */
+    public void setHighlight(GamePosition position, int highlight, boolean isShown) {
+        setHighlight(position.getIndex(size), highlight, isShown);
     }
 
-    public BufferedImage getAsset (GamePawnType type) {
-        return assets.get(type);
+    public void setHighlight(int index, int highlight, boolean isShown) {
+        int flags = isShown ? highlights[index] | highlight : highlights[index] & ~highlight;
+        if (flags == highlights[index]) return;
+        highlights[index] = (byte) flags;
+        if (rendering == Rendering.Components) tiles[index].setHighlights(flags);
+        else repaintTile(index);
+    }
+
+    /**
+     * Paints the highlights of the tile over its pawn. Cursor and selection frame the tile,
+     * the targets of the selected pawn are marked with a disc.
+     */
+    static void paintHighlights(Graphics2D g2d, int x, int y, int width, int height, int flags) {
+        if ((flags & TARGET) != 0) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(TARGET_MARKER);
+            g2d.fillOval(x + width * 3 / 8, y + height * 3 / 8, width / 4, height / 4);
+        }
+        if ((flags & (CURSOR | SELECTION)) != 0) {
+            // Stroke is centered on the edges, so only its inner half is inside the tile
+            Shape clip = g2d.getClip();
+            g2d.clipRect(x, y, width, height);
+            g2d.setColor(MARKER);
+            g2d.setStroke(MARKER_STROKE);
+            g2d.drawRect(x, y, width, height);
+            g2d.setClip(clip);
+        }
+    }
+
+    private int getTileSize() {
+        return Math.min(getWidth(), getHeight()) / size;
+    }
+
+    private void repaintTile(int index) {
+        int tileSize = getTileSize();
+        repaint(index % size * tileSize, index / size * tileSize, tileSize, tileSize);
+    }
+
+    /**
+     * Paints only the tiles intersecting the clip, which is a single tile after the change
+     * of its pawn or highlight.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (rendering == Rendering.Components) return;
+        int tileSize = getTileSize();
+        if (tileSize == 0) return;
+        Graphics2D g2d = (Graphics2D) g;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int firstRow = Math.max(clip.y / tileSize, 0);
+        int lastRow = Math.min((clip.y + clip.height - 1) / tileSize, size - 1);
+        int firstCol = Math.max(clip.x / tileSize, 0);
+        int lastCol = Math.min((clip.x + clip.width - 1) / tileSize, size - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int index = row * size + col;
+                int x = col * tileSize;
+                int y = row * tileSize;
+                g2d.setColor((index + row) % 2 == 0 ? DARK : LIGHT);
+                g2d.fillRect(x, y, tileSize, tileSize);
+                BufferedImage image = sprites.get(pawns[index], tileSize, tileSize, getGraphicsConfiguration());
+                if (image != null) g2d.drawImage(image, x, y, null);
+                paintHighlights(g2d, x, y, tileSize, tileSize, highlights[index]);
+            }
+        }
     }
 
 }
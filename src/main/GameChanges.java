@@ -0,0 +1,54 @@
+package main;
+
+/**
+ * Contains the tiles changed by the move or the reset of the game as bitboards (bit index
+ * is row * 8 + col), so that the board can update only these tiles.
+ * @param vacated Tiles left by the moved pawns
+ * @param occupied Tiles taken by the moved pawns
+ * @param promoted Tiles where the pawn was transformed into the queen
+ * @param captured Tiles of the captured pawns
+ */
+public record GameChanges (
+        long vacated,
+        long occupied,
+        long promoted,
+        long captured
+) {
+
+    /**
+     * Returns the changes of the move, e.g. taken from the packed GameMoveResult.
+     */
+    public static GameChanges ofMove(long move) {
+        long to = 1L << GameMove.to(move);
+        return new GameChanges(1L << GameMove.from(move), to, GameMove.isPromotion(move) ? to : 0,
+                GameMove.captured(move));
+    }
+
+    /**
+     * Compares two snapshots of the board, e.g. the shown one and the one after the reset.
+     * Tiles, where the pawn was replaced by another one, are both vacated and occupied.
+     */
+    public static GameChanges between(byte[] before, byte[] after) {
+        int blank = GamePawnType.Blank.ordinal();
+        long vacated = 0;
+        long occupied = 0;
+        for (int i = 0; i < 64; i++) {
+            if (before[i] == after[i]) continue;
+            if (before[i] != blank) vacated |= 1L << i;
+            if (after[i] != blank) occupied |= 1L << i;
+        }
+        return new GameChanges(vacated, occupied, 0, 0);
+    }
+
+    /**
+     * Returns all the tiles, which have to be updated.
+     */
+    public long changed() {
+        return vacated | occupied | promoted | captured;
+    }
+
+    public boolean isEmpty() {
+        return changed() == 0;
+    }
+
+}
@@ -0,0 +1,145 @@
+package main;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Plays one side of the game using GameSearch. The search runs on a copy of the state in
+ * a SwingWorker, so the board stays responsive, and the chosen move is played through
+ * GameController on the event dispatch thread. Statistics of each search are shown in the
+ * title of the window. Positions found in the opening book are played at once, without
+ * the search, and the endgames found in the tablebase are scored without searching them.
+ * Selected at the startup with the "game.computer" (White, Black or None),
+ * "game.computer.time" (milliseconds per move), "game.computer.threads" (threads of
+ * GameParallelSearch, all the processors by default), "game.computer.book" (path of
+ * the GameOpeningBook, none by default) and "game.computer.tablebase" (directory of
+ * the GameTablebase, none by default) system properties.
+ */
+public class GameComputerPlayer {
+
+    private static final int TABLE_SIZE = 1 << 20;
+
+    private final JFrame frame;
+    private final String title;
+    private final GamePlayerType player;
+    private final long millis;
+    private final int threads;
+    private final GameOpeningBook book;
+    private final GameTablebase tablebase;
+    // Shared by the searches of the whole game, since the positions repeat between the moves
+    private final GameTranspositionTable table = new GameTranspositionTable(TABLE_SIZE);
+    private SwingWorker<GameSearchResult, Void> worker;
+
+    public GameComputerPlayer(JFrame frame, GamePlayerType player, long millis, int threads) {
+        this(frame, player, millis, threads, null, null);
+    }
+
+    public GameComputerPlayer(JFrame frame, GamePlayerType player, long millis, int threads,
+                              GameOpeningBook book, GameTablebase tablebase) {
+        this.frame = frame;
+        this.title = frame.getTitle();
+        this.player = player;
+        this.millis = millis;
+        this.threads = threads;
+        this.book = book;
+        this.tablebase = tablebase;
+    }
+
+    public static GameComputerPlayer fromProperties(JFrame frame) {
+        String name = System.getProperty("game.computer", GamePlayerType.None.name());
+        for (GamePlayerType player : GamePlayerType.values()) {
+            if (player.name().equalsIgnoreCase(name)) {
+                return new GameComputerPlayer(frame, player,
+                        Long.parseLong(System.getProperty("game.computer.time", "1000")),
+                        Integer.getInteger("game.computer.threads", Runtime.getRuntime().availableProcessors()),
+                        openBook(System.getProperty("game.computer.book")),
+                        readTablebase(System.getProperty("game.computer.tablebase")));
+            }
+        }
+        throw new RuntimeException("Unknown computer player - " + name);
+    }
+
+    private static GameOpeningBook openBook(String path) {
+        if (path == null) return null;
+        try {
+            return new GameOpeningBook(Path.of(path));
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't open the opening book - " + path, e);
+        }
+    }
+
+    private static GameTablebase readTablebase(String path) {
+        if (path == null) return null;
+        try {
+            return GameTablebase.read(Path.of(path));
+        } catch (IOException e) {
+            throw new RuntimeException("Couldn't read the endgame tablebase - " + path, e);
+        }
+    }
+
+    public GamePlayerType getPlayer() {
+        return player;
+    }
+
+    /**
+     * Starts looking for the move if it's the computer's turn. The state and the history are
+     * copied on the event dispatch thread, so the search never touches the ones used by the board.
+     */
+    public void play(GameState state, GameHistory history, GameController controller) {
+        if (player == GamePlayerType.None || state.getCurrentPlayer() != player || worker != null) return;
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        int move = book == null ? -1 : book.bestMove(state);
+        if (move >= 0 && isLegal(new GameBitboardState(snapshot), move)) {
+            // Played later, so the move in progress finishes before the book move starts
+            frame.setTitle(String.format("%s - %s: opening book", title, player));
+            SwingUtilities.invokeLater(() -> controller.play(GamePosition.of(move & 0x3F),
+                    GamePosition.of((move >>> 6) & 0x3F)));
+            return;
+        }
+        GameHistory played = history.copy();
+        worker = new SwingWorker<>() {
+            @Override
+            protected GameSearchResult doInBackground() {
+                var search = new GameParallelSearch(new GameBitboardState(snapshot), table, played, threads);
+                search.setTablebase(tablebase);
+                return search.search(millis, GameSearch.MAX_PLY);
+            }
+
+            @Override
+            protected void done() {
+                worker = null;
+                GameSearchResult result;
+                try {
+                    result = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    JOptionPane.showMessageDialog(frame, "Computer player couldn't find the move.");
+                    return;
+                }
+                frame.setTitle(String.format("%s - %s: depth %d, %,d nodes, %,d nodes/s on %d threads", title,
+                        player, result.depth(), result.nodes(), result.nodesPerSecond(), threads));
+                if (result.hasMove()) {
+                    controller.play(GameMove.fromPosition(result.move()), GameMove.toPosition(result.move()));
+                } else {
+                    controller.handleNoMove(player);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Checks the move of the book, which could come from another position with the same hash.
+     */
+    private static boolean isLegal(GameState state, int move) {
+        GameMoveList moves = new GameMoveList();
+        state.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if ((GameMove.from(moves.get(i)) | GameMove.to(moves.get(i)) << 6) == move) return true;
+        }
+        return false;
+    }
+
+}
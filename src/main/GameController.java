@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Controls the moving process in the game. Register moves thanks to integration
@@ -19,84 +18,170 @@ public class GameController{
     private final GameBoard board;
     private final GameState state;
     private final JFrame frame;
+    private final byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+    // Board as shown by the view, which the changes are applied to
+    private final byte[] shown = new byte[GameState.SNAPSHOT_SIZE];
+    private static final GamePawnType[] TYPES = GamePawnType.values();
+    private GameComputerPlayer computer;
+    private GameCursor cursor;
+    private final GameHistory history = new GameHistory();
+    private final GameMoveList moves = new GameMoveList();
+    // Tiles highlighted as the targets of the selected pawn
+    private long targets;
 
     public GameController(JFrame frame, GameBoard board, GameState state) {
         this.state = state;
         this.frame = frame;
         this.board = board;
+        Arrays.fill(shown, (byte) GamePawnType.Blank.ordinal());
     }
 
-    public Stream<GameTile> getTiles() {
-        return Arrays.stream(board.getComponents())
-                .filter(c -> c instanceof GameTile)
-                .map(c -> (GameTile) c);
+    public void setCursor(GameCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    public void setComputerPlayer(GameComputerPlayer computer) {
+        this.computer = computer;
+    }
+
+    /**
+     * Tells whether the human input should be ignored, because the computer is on the move.
+     */
+    public boolean isComputerTurn() {
+        return computer != null && state.getCurrentPlayer() == computer.getPlayer();
+    }
+
+    /**
+     * Lets the computer player move if it's its turn.
+     */
+    public void requestComputerMove() {
+        if (computer != null) computer.play(state, history, this);
+    }
+
+    /**
+     * Plays the move chosen by the computer player.
+     */
+    public void play(GamePosition from, GamePosition to) {
+        this.from = from;
+        this.to = to;
+        move();
     }
 
     public boolean doesSelectRequirePawn() {
         return from == null;
     }
 
+    /**
+     * Selects the clicked tile or takes back its selection if it's already selected.
+     */
+    public void click(GamePosition position) {
+        if (isComputerTurn()) return;
+        if (isSelected(position)) clear();
+        else select(position.row(), position.col());
+        cursor.setCursor(position);
+        cursor.hideCursor();
+    }
+
     public void select(int row, int col) {
+        if (isComputerTurn()) return;
         if (from != null) {
-            to = new GamePosition(row, col);
+            to = GamePosition.of(row, col);
             move();
         } else {
-            from = new GamePosition(row, col);
+            from = GamePosition.of(row, col);
+            showSelection(true);
         }
     }
 
+    /**
+     * Highlights the selected tile and the tiles the selected pawn can move to.
+     */
+    private void showSelection(boolean isShown) {
+        board.setHighlight(from, GameBoard.SELECTION, isShown);
+        if (isShown) {
+            int square = from.square();
+            state.generateMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                if (GameMove.from(moves.get(i)) == square) targets |= 1L << GameMove.to(moves.get(i));
+            }
+        }
+        for (long bits = targets; bits != 0; bits &= bits - 1) {
+            int square = Long.numberOfTrailingZeros(bits);
+            board.setHighlight(square, GameBoard.TARGET, isShown);
+        }
+        if (!isShown) targets = 0;
+    }
+
     public void unselect() {
         to = null;
         from = null;
     }
 
+    /**
+     * Shows the current board, e.g. after the reset. Only the tiles which differ from
+     * the shown board are updated.
+     */
     public void start() {
-        getTiles().forEach(tile -> {
-            Arrays.stream(tile.getComponents())
-                    .filter(component -> component instanceof GamePawn)
-                     .forEach(tile::remove);
-            tile.setPawn(new GamePawn(board.getAsset(state.get(tile.getPosition()))));
-        });
-    }
-
-    public void removeTakenPawns(GameMoveResult result) {
-        Arrays.stream(result.takenPawns()).forEach(position -> {
-            getTiles()
-                 .filter(tile -> tile.getPosition().equals(position))
-                 .findFirst()
-                 .ifPresent(GameTile::unsetPawn);
-        });
-    }
-
-    public void process(GameMoveResult result) {
-        getTiles()
-                .filter(tile -> tile.getPosition().equals(from))
-                .forEach(GameTile::unsetPawn);
-        var toTile = getTiles()
-                .filter(tile -> tile.getPosition().equals(to))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Couldn't properly process the move."));
-        var queen = state.getCurrentPlayer() != GamePlayerType.White ? // Round has changes this inverted
-                GamePawnType.WhiteQueen : GamePawnType.BlackQueen;
-        toTile.setPawn(result.isQueen() ? new GamePawn(board.getAsset(queen))
-                : new GamePawn(board.getAsset(state.get(toTile.getPosition()))));
-        removeTakenPawns(result);
+        history.clear();
+        history.add(state.getHash());
+        state.snapshot(snapshot);
+        apply(GameChanges.between(shown, snapshot));
+    }
+
+    /**
+     * Updates the view after the move, given the packed GameMoveResult.
+     */
+    public void process(long result) {
+        apply(GameChanges.ofMove(GameMoveResult.move(result)));
+    }
+
+    /**
+     * Updates the changed tiles of the view from the snapshot of the state.
+     */
+    public void apply(GameChanges changes) {
+        if (changes.isEmpty()) return;
+        state.snapshot(snapshot);
+        for (long bits = changes.changed(); bits != 0; bits &= bits - 1) {
+            int square = Long.numberOfTrailingZeros(bits);
+            shown[square] = snapshot[square];
+            board.setPawn(square, TYPES[snapshot[square]]);
+        }
     }
 
     public void move() {
-        GameMoveResult result = state.process(this.from, this.to);
-        if (!result.isCorrect()) {
-            JOptionPane.showMessageDialog(frame, result.message());
+        long result = state.processPacked(this.from, this.to);
+        if (!GameMoveResult.isCorrect(result)) {
+            JOptionPane.showMessageDialog(frame, GameMoveResult.message(result));
             clear();
             return;
         }
         process(result);
-        handleWinner(result);
+        history.add(state.getHash());
+        GamePlayerType winner = GameMoveResult.winner(result);
+        // Player who can't move has lost
+        if (winner == GamePlayerType.None && state.generateMoves(moves) == 0) {
+            winner = opponent(state.getCurrentPlayer());
+        }
+        if (winner == GamePlayerType.None) handleRepetition();
+        else handleWinner(winner);
         clear();
+        requestComputerMove();
+    }
+
+    private static GamePlayerType opponent(GamePlayerType player) {
+        return player == GamePlayerType.White ? GamePlayerType.Black : GamePlayerType.White;
     }
 
-    public void handleWinner(GameMoveResult result) {
-        switch (result.winner()) {
+    /**
+     * Ends the game, when the player can't move. Used by the computer player, whose search
+     * found no move.
+     */
+    public void handleNoMove(GamePlayerType player) {
+        handleWinner(opponent(player));
+    }
+
+    public void handleWinner(GamePlayerType winner) {
+        switch (winner) {
             case White:
                 JOptionPane.showMessageDialog(frame, "Congratulations! White has won the game! " +
                         "Now the game will restart.");
@@ -112,22 +197,20 @@ public class GameController{
         }
     }
 
-    public void clear() {
-        unmark(from.row(), from.col());
-        if (to != null) unmark(to.row(), to.col());
-        unselect();
+    /**
+     * Ends the game with a draw, when the same position occurs for the third time.
+     */
+    public void handleRepetition() {
+        if (history.count(state.getHash()) < 3) return;
+        JOptionPane.showMessageDialog(frame, "The same position has occurred three times, the game is a draw! " +
+                "Now the game will restart.");
+        state.reset();
+        start();
     }
 
-    public void mark(int row, int col) {
-        getTiles()
-                .filter(tile -> tile.getPosition().equals(new GamePosition(row, col)))
-                .forEach(GameTile::setMarker);
-    }
-
-    public void unmark(int row, int col) {
-        getTiles()
-                .filter(tile -> tile.getPosition().equals(new GamePosition(row, col)))
-                .forEach(GameTile::unsetMarker);
+    public void clear() {
+        if (from != null) showSelection(false);
+        unselect();
     }
 
     public boolean isSelected(GamePosition pos) {
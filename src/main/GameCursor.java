@@ -1,44 +1,65 @@
 package main;
 
-import java.util.ArrayList;
+import javax.swing.*;
 
 /**
- * Using GameMarkers simulates the cursor for the keyboard interface.
+ * Using the cursor highlight of GameBoard simulates the cursor for the keyboard interface.
+ * Moves by the arrow keys update the position at once, but the highlight follows at most
+ * once per frame, so the bursts of the key auto-repeat cause a single repaint.
  */
 public class GameCursor {
 
+    private static final int FRAME_MILLIS = 16;
+
     private GamePosition position;
+    // Tile with the cursor highlight or null if it's hidden
+    private GamePosition shown;
     private final int size;
-    private final GameController controller;
+    private final GameBoard board;
+    private final Timer timer;
 
-    public GameCursor(GameController controller, int size) {
+    public GameCursor(GameBoard board, int size) {
         this.size = size;
-        position = new GamePosition(0, 0);
-        this.controller = controller;
+        position = GamePosition.of(0, 0);
+        this.board = board;
+        timer = new Timer(FRAME_MILLIS, e -> showCursor());
+        timer.setRepeats(false);
     }
 
     private boolean isCorrectPosition(GamePosition pos) {
         return (pos.row() >= 0 && pos.row() < size && pos.col() >= 0 && pos.col() < size);
     }
 
-    public GameTile getSelected() {
-        return controller.getTiles().toList().get(position.getIndex(size));
+    public GamePosition getPosition() {
+        return position;
     }
 
     public void hideCursor() {
-        if (!controller.isSelected(position)) getSelected().unsetMarker();
+        timer.stop();
+        if (shown != null) board.setHighlight(shown, GameBoard.CURSOR, false);
+        shown = null;
     }
 
     public void setCursor(GamePosition position) {
         if (!isCorrectPosition(position)) return;
-        hideCursor();
         this.position = position;
-        controller.getTiles().toList().get(position.getIndex(size)).setMarker();
+        showCursor();
     }
 
     public void moveCursor(int by_row, int by_col) {
-        setCursor(new GamePosition(position.row() + by_row,
-                position.col() + by_col));
+        int row = position.row() + by_row;
+        int col = position.col() + by_col;
+        if (!GamePosition.isOnBoard(row, col)) return;
+        position = GamePosition.of(row, col);
+        if (!timer.isRunning()) timer.start();
+    }
+
+    private void showCursor() {
+        timer.stop();
+        if (position.equals(shown)) return;
+        hideCursor();
+        board.setHighlight(position, GameBoard.CURSOR, true);
+        shown = position;
     }
 
 }
@@ -0,0 +1,45 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Remembers the hashes of the positions played in the game, so that the repeated positions
+ * can be counted without storing the boards.
+ */
+public class GameHistory {
+
+    private long[] hashes = new long[128];
+    private int size;
+
+    public void add(long hash) {
+        if (size == hashes.length) hashes = Arrays.copyOf(hashes, size * 2);
+        hashes[size++] = hash;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int count(long hash) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash) count++;
+        }
+        return count;
+    }
+
+    public boolean contains(long hash) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (hashes[i] == hash) return true;
+        }
+        return false;
+    }
+
+    public GameHistory copy() {
+        GameHistory copy = new GameHistory();
+        copy.hashes = Arrays.copyOf(hashes, hashes.length);
+        copy.size = size;
+        return copy;
+    }
+
+}
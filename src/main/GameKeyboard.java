@@ -13,7 +13,7 @@ public class GameKeyboard {
     private final GameCursor cursor;
 
     public GameKeyboard(GameBoard panel, GameController controller, int size) {
-        cursor = new GameCursor(controller, size);
+        cursor = new GameCursor(panel, size);
 
         InputMap inputMap = panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
         ActionMap actionMap =  panel.getActionMap();
@@ -52,7 +52,7 @@ public class GameKeyboard {
         actionMap.put("enterAction", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                GamePosition position = cursor.getSelected().getPosition();
+                GamePosition position = cursor.getPosition();
                 controller.select(position.row(), position.col());
                 cursor.hideCursor();
             }
@@ -0,0 +1,97 @@
+package main;
+
+/**
+ * Encodes the moves as primitive longs, so that the move lists don't allocate. Bits 0-5 hold
+ * the starting tile, bits 6-11 the target tile (both as row * 8 + col), bit 12 tells whether
+ * the pawn is transformed into the queen and the upper 32 bits hold the captured pawns.
+ * Diagonal moves never change the color of the tile, so the captured pawns are packed
+ * as the tiles of the starting tile's color (row * 4 + col / 2).
+ */
+public final class GameMove {
+
+    private static final long ODD_ROWS = 0xFF00FF00FF00FF00L;
+    private static final long EVEN_ROWS = ~ODD_ROWS;
+    private static final long PROMOTION = 1L << 12;
+
+    private GameMove() {}
+
+    public static long encode(int from, int to, boolean isPromotion, long captured) {
+        long move = from | (to << 6) | (isPromotion ? PROMOTION : 0);
+        return move | (compress(captured, parity(from)) << 32);
+    }
+
+    public static int from(long move) {
+        return (int) move & 0x3F;
+    }
+
+    public static int to(long move) {
+        return (int) (move >>> 6) & 0x3F;
+    }
+
+    public static boolean isPromotion(long move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    public static boolean isCapture(long move) {
+        return (move >>> 32) != 0;
+    }
+
+    public static int capturedAmount(long move) {
+        return Long.bitCount(move >>> 32);
+    }
+
+    /**
+     * Returns the captured pawns as the bitboard of tiles (row * 8 + col).
+     */
+    public static long captured(long move) {
+        return expand(move >>> 32, parity(from(move)));
+    }
+
+    public static GamePosition fromPosition(long move) {
+        return GamePosition.of(from(move));
+    }
+
+    public static GamePosition toPosition(long move) {
+        return GamePosition.of(to(move));
+    }
+
+    public static String toString(long move) {
+        StringBuilder builder = new StringBuilder()
+                .append(from(move) / 8).append(',').append(from(move) % 8)
+                .append(isCapture(move) ? " x " : " - ")
+                .append(to(move) / 8).append(',').append(to(move) % 8);
+        if (isPromotion(move)) builder.append(" Q");
+        return builder.toString();
+    }
+
+    private static int parity(int square) {
+        return ((square >>> 3) + square) & 1;
+    }
+
+    /**
+     * Tiles of a single color hold exactly one of each pair of neighbouring bits, so after
+     * shifting the rows which start with the other color they can be squeezed into 32 bits.
+     */
+    private static long compress(long squares, int parity) {
+        long rows = parity == 0 ? ODD_ROWS : EVEN_ROWS;
+        long x = (squares & ~rows) | ((squares & rows) >>> 1);
+        x &= 0x5555555555555555L;
+        x = (x | (x >>> 1)) & 0x3333333333333333L;
+        x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+        return (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+    }
+
+    private static long expand(long packed, int parity) {
+        long x = packed & 0x00000000FFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        long rows = parity == 0 ? ODD_ROWS : EVEN_ROWS;
+        return (x & ~rows) | ((x & rows) << 1);
+    }
+
+}
@@ -0,0 +1,45 @@
+package main;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of moves encoded by GameMove. It only grows, so once it is warmed up
+ * filling it again doesn't allocate.
+ */
+public class GameMoveList {
+
+    private long[] moves;
+    private int size;
+
+    public GameMoveList() {
+        this(64);
+    }
+
+    public GameMoveList(int capacity) {
+        moves = new long[Math.max(capacity, 1)];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(long move) {
+        if (size == moves.length) moves = Arrays.copyOf(moves, size * 2);
+        moves[size++] = move;
+    }
+
+    public long get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return moves[index];
+    }
+
+    public void set(int index, long move) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+}
@@ -14,4 +14,62 @@ public record GameMoveResult (
         GamePosition[] takenPawns,
         GamePlayerType winner,
         String message
-) {}
\ No newline at end of file
+) {
+
+    /*
+     * Results can also be packed into a single long, which doesn't allocate. The lower bits
+     * hold the played move as encoded by GameMove (tiles, transformation into the queen and
+     * the captured pawns), bits 13-14 the ordinal of the winner and bits 15-17 the error code.
+     */
+    public static final int CORRECT = 0;
+    public static final int OUTSIDE = 1;
+    public static final int NO_PAWN = 2;
+    public static final int WRONG_TURN = 3;
+    public static final int FORBIDDEN = 4;
+
+    private static final String[] MESSAGES = new String[]{
+            "",
+            "Selected tile is outside of the board.",
+            "There is no pawn on the selected tile.",
+            "It's not your turn.",
+            "This move is not allowed.",
+    };
+    private static final GamePlayerType[] PLAYERS = GamePlayerType.values();
+    private static final long FLAGS = 0x3FL << 13;
+
+    public static long pack(long move, GamePlayerType winner, int error) {
+        return (move & ~FLAGS) | ((long) winner.ordinal() << 13) | ((long) error << 15);
+    }
+
+    public static long packError(int error) {
+        return pack(0, GamePlayerType.None, error);
+    }
+
+    public static boolean isCorrect(long result) {
+        return error(result) == CORRECT;
+    }
+
+    public static boolean isQueen(long result) {
+        return GameMove.isPromotion(result);
+    }
+
+    public static GamePlayerType winner(long result) {
+        return PLAYERS[(int) (result >>> 13) & 0x3];
+    }
+
+    public static int error(long result) {
+        return (int) (result >>> 15) & 0x7;
+    }
+
+    public static String message(long result) {
+        return MESSAGES[error(result)];
+    }
+
+    /**
+     * Returns the played move without the result flags, ready for GameMove accessors.
+     */
+    public static long move(long result) {
+        return result & ~FLAGS;
+    }
+
+}
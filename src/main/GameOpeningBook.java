@@ -0,0 +1,130 @@
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Looks up the moves played in the opening positions in the book written by
+ * GameOpeningBookBuilder. The file is mapped into memory and searched in place with
+ * binary search, so a lookup takes microseconds and nothing is loaded on the heap.
+ * Layout of the file:
+ * <pre>
+ * header   16 bytes  magic, version, amount of entries
+ * entries  24 bytes  position hash, games, wins and draws of the player to move,
+ *                    move (from | to << 6), reserved
+ * </pre>
+ * Entries are sorted by the hash (see GameState.getHash) and the moves of the position by
+ * the amount of games, most played first.
+ */
+public class GameOpeningBook implements Closeable {
+
+    static final int MAGIC = 0x434B4F42;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 24;
+
+    private static final int HASH = 0;
+    private static final int GAMES = 8;
+    private static final int WINS = 12;
+    private static final int DRAWS = 16;
+    private static final int MOVE = 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    public GameOpeningBook(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < HEADER_SIZE) throw new IOException("Not an opening book.");
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Opening book is too large.");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) throw new IOException("Not an opening book.");
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported opening book version - " + buffer.getInt(4));
+            }
+            size = buffer.getInt(8);
+            if (HEADER_SIZE + (long) size * ENTRY_SIZE > channel.size()) {
+                throw new IOException("Opening book is truncated.");
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the first entry of the position or -1 if it isn't in the book. The following
+     * entries with the same hash are the other moves of the position.
+     */
+    public int find(long hash) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (getHash(middle) < hash) low = middle + 1;
+            else high = middle;
+        }
+        return low < size && getHash(low) == hash ? low : -1;
+    }
+
+    /**
+     * Returns the amount of the moves of the position starting at the entry.
+     */
+    public int count(int entry) {
+        if (entry < 0) return 0;
+        long hash = getHash(entry);
+        int end = entry;
+        while (end < size && getHash(end) == hash) end++;
+        return end - entry;
+    }
+
+    /**
+     * Returns the most played move of the position packed as (from | to << 6) or -1 if
+     * the position isn't in the book.
+     */
+    public int bestMove(GameState state) {
+        int entry = find(state.getHash());
+        return entry < 0 ? -1 : getMove(entry);
+    }
+
+    public long getHash(int entry) {
+        return buffer.getLong(offset(entry) + HASH);
+    }
+
+    public int getMove(int entry) {
+        return buffer.getShort(offset(entry) + MOVE);
+    }
+
+    public int getGames(int entry) {
+        return buffer.getInt(offset(entry) + GAMES);
+    }
+
+    public int getWins(int entry) {
+        return buffer.getInt(offset(entry) + WINS);
+    }
+
+    public int getDraws(int entry) {
+        return buffer.getInt(offset(entry) + DRAWS);
+    }
+
+    private static int offset(int entry) {
+        return HEADER_SIZE + entry * ENTRY_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,123 @@
+package main;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the statistics of the moves played from the initial board and writes them
+ * as the GameOpeningBook. Games come from the game logs or are added directly, e.g. by
+ * the self-play. Only the first moves of each game are counted, games started from
+ * a custom board are skipped.
+ * Run as: java main.GameOpeningBookBuilder [book] [moves per game] [minimum games] [logs...]
+ */
+public class GameOpeningBookBuilder {
+
+    private record Key(long hash, int move) {}
+
+    private final int maxMoves;
+    private final GameBitboardState state = new GameBitboardState();
+    private final long[] result = new long[1];
+    // Games, wins and draws of the player making the move
+    private final Map<Key, int[]> entries = new HashMap<>();
+
+    public GameOpeningBookBuilder(int maxMoves) {
+        this.maxMoves = maxMoves;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Counts the first moves of the game started from the initial board.
+     */
+    public void add(short[] moves, int offset, int length, GamePlayerType winner) {
+        state.reset();
+        for (int i = 0; i < Math.min(length, maxMoves); i++) {
+            long hash = state.getHash();
+            GamePlayerType player = state.getCurrentPlayer();
+            state.processBatch(moves, offset + i, 1, result);
+            if (!GameMoveResult.isCorrect(result[0])) return;
+            int[] stats = entries.computeIfAbsent(new Key(hash, moves[offset + i]), key -> new int[3]);
+            stats[0]++;
+            if (winner == player) stats[1]++;
+            else if (winner == GamePlayerType.None) stats[2]++;
+        }
+    }
+
+    /**
+     * Counts the games of the log and returns their amount.
+     */
+    public int addGames(GameRecordReader reader) throws IOException {
+        int games = 0;
+        while (reader.next()) {
+            if (reader.isCustomStart()) continue;
+            add(reader.getMoves(), 0, reader.getLength(), reader.getWinner());
+            games++;
+        }
+        return games;
+    }
+
+    /**
+     * Writes the moves played at least in the given amount of games and returns their amount.
+     */
+    public int write(OutputStream output, int minGames) throws IOException {
+        List<Map.Entry<Key, int[]>> sorted = new ArrayList<>();
+        for (Map.Entry<Key, int[]> entry : entries.entrySet()) {
+            if (entry.getValue()[0] >= minGames) sorted.add(entry);
+        }
+        sorted.sort(Comparator.<Map.Entry<Key, int[]>>comparingLong(entry -> entry.getKey().hash())
+                .thenComparingInt(entry -> -entry.getValue()[0])
+                .thenComparingInt(entry -> entry.getKey().move()));
+
+        var out = new BufferedOutputStream(output, 1 << 16);
+        ByteBuffer buffer = ByteBuffer.allocate(GameOpeningBook.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(GameOpeningBook.MAGIC).putInt(GameOpeningBook.VERSION).putInt(sorted.size()).putInt(0);
+        out.write(buffer.array());
+        buffer = ByteBuffer.allocate(GameOpeningBook.ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (Map.Entry<Key, int[]> entry : sorted) {
+            int[] stats = entry.getValue();
+            buffer.clear();
+            buffer.putLong(entry.getKey().hash()).putInt(stats[0]).putInt(stats[1]).putInt(stats[2])
+                    .putShort((short) entry.getKey().move()).putShort((short) 0);
+            out.write(buffer.array());
+        }
+        out.flush();
+        return sorted.size();
+    }
+
+    public int write(Path path, int minGames) throws IOException {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            return write(output, minGames);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path book = Path.of(args.length > 0 ? args[0] : "openings.ckob");
+        int maxMoves = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int minGames = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        long start = System.nanoTime();
+        var builder = new GameOpeningBookBuilder(maxMoves);
+        int games = 0;
+        for (int i = 3; i < args.length; i++) {
+            try (var reader = new GameRecordReader(Path.of(args[i]))) {
+                games += builder.addGames(reader);
+            }
+        }
+        int written = builder.write(book, minGames);
+        System.out.printf("%,d games, %,d moves of %,d written in %,.1f ms%n", games, written, builder.size(),
+                (System.nanoTime() - start) / 1e6);
+    }
+
+}
@@ -0,0 +1,91 @@
+package main;
+
+/**
+ * Runs GameSearch on several threads at once (lazy SMP). Every thread searches its own copy
+ * of the position, but all of them share one GameTranspositionTable, so the helper threads
+ * fill the table with the results the main thread needs next. Every other helper starts one
+ * iteration deeper, so that the threads don't walk the same tree in the same order. The move
+ * of the thread with the deepest completed iteration is played.
+ */
+public class GameParallelSearch {
+
+    private final GameSearch[] searches;
+    private final GameTranspositionTable table;
+
+    /**
+     * Creates the search using the given amount of threads, the calling one included.
+     */
+    public GameParallelSearch(GameBitboardState state, GameTranspositionTable table, GameHistory history,
+                              int threads) {
+        if (threads < 1) throw new RuntimeException("Search needs at least one thread - " + threads);
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        this.table = table;
+        searches = new GameSearch[threads];
+        searches[0] = new GameSearch(state, table, history);
+        for (int i = 1; i < threads; i++) {
+            searches[i] = new GameSearch(new GameBitboardState(snapshot), table, history);
+        }
+    }
+
+    public void setTablebase(GameTablebase tablebase) {
+        for (GameSearch search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Searches on all the threads until the main one reaches the time budget or the maximal
+     * depth. Nodes of the result are summed over all the threads.
+     */
+    public GameSearchResult search(long millis, int maxDepth) {
+        long start = System.nanoTime();
+        table.newSearch();
+        // Cleared before any thread starts, so that the stop of the early finished main one isn't lost
+        for (GameSearch search : searches) {
+            search.clearStop();
+        }
+        GameSearchResult[] results = new GameSearchResult[searches.length];
+        Thread[] helpers = new Thread[searches.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            int index = i + 1;
+            helpers[i] = new Thread(() -> results[index] = searches[index].search(millis, 1 + index % 2, maxDepth),
+                    "GameSearch-" + index);
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        results[0] = searches[0].search(millis, 1, maxDepth);
+        for (int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Search was interrupted.", e);
+            }
+        }
+
+        GameSearchResult best = results[0];
+        long nodes = 0;
+        for (GameSearchResult result : results) {
+            // Helper which has failed has no result, its exception is reported by its thread
+            if (result == null) continue;
+            nodes += result.nodes();
+            if (result.hasMove() && result.depth() > best.depth()) best = result;
+        }
+        return new GameSearchResult(best.move(), best.score(), best.depth(), nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Interrupts all the threads of the running search, which then returns the results
+     * of their last completed iterations.
+     */
+    public void stop() {
+        for (GameSearch search : searches) {
+            search.stop();
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Counts the leaf nodes of the game tree to the given depth (perft). Used to validate
+ * the move generator against the reference counts and to measure its throughput.
+ * Starts from the initial board or from the position read from the file: 64 tiles
+ * (Wp, Bp, Wq, Bq or -- for the blank one, row by row as in the tests) followed by
+ * the player to move (White or Black), all separated by whitespace.
+ * Run as: java main.GamePerft [depth] [divide] [position file]
+ */
+public class GamePerft {
+
+    private final GameState state;
+    private final GameMoveList[] lists;
+
+    public GamePerft(GameState state, int maxDepth) {
+        this.state = state;
+        this.lists = new GameMoveList[Math.max(maxDepth, 1)];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new GameMoveList();
+        }
+    }
+
+    public long perft(int depth) {
+        if (depth == 0) return 1;
+        GameMoveList moves = lists[depth - 1];
+        int amount = state.generateMoves(moves);
+        if (depth == 1) return amount;
+        long nodes = 0;
+        for (int i = 0; i < amount; i++) {
+            long move = moves.get(i);
+            long undo = state.makeMove(move);
+            nodes += perft(depth - 1);
+            state.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * Fills the list with the moves of the current player and returns the amount of leaf
+     * nodes under each of them.
+     */
+    public long[] divide(int depth, GameMoveList moves) {
+        int amount = state.generateMoves(moves);
+        long[] nodes = new long[amount];
+        for (int i = 0; i < amount; i++) {
+            long move = moves.get(i);
+            long undo = state.makeMove(move);
+            nodes[i] = perft(depth - 1);
+            state.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * Reads the position in the format described above.
+     */
+    public static GameState.Initializer readPosition(Path path) throws IOException {
+        String[] tokens = Files.readString(path).trim().split("\\s+");
+        if (tokens.length != 65) {
+            throw new RuntimeException("Position needs 64 tiles and the player to move - " + path);
+        }
+        GamePawnType[] tiles = new GamePawnType[64];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = switch (tokens[i]) {
+                case "Wp" -> GamePawnType.WhitePawn;
+                case "Bp" -> GamePawnType.BlackPawn;
+                case "Wq" -> GamePawnType.WhiteQueen;
+                case "Bq" -> GamePawnType.BlackQueen;
+                case "--" -> GamePawnType.Blank;
+                default -> throw new RuntimeException("Can't decode the tile - " + tokens[i]);
+            };
+        }
+        GamePlayerType player = switch (tokens[64]) {
+            case "White" -> GamePlayerType.White;
+            case "Black" -> GamePlayerType.Black;
+            default -> throw new RuntimeException("Can't decode the player to move - " + tokens[64]);
+        };
+        return new GameState.Initializer(tiles, player);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        boolean isDivide = args.length > 1 && args[1].equals("divide");
+        int positionArg = isDivide ? 2 : 1;
+        GameState state = args.length > positionArg
+                ? GameState.create(GameState.Backend.Bitboard, readPosition(Path.of(args[positionArg])))
+                : GameState.create(GameState.Backend.Bitboard);
+        GamePerft perft = new GamePerft(state, depth);
+
+        if (isDivide) {
+            GameMoveList moves = new GameMoveList();
+            long[] nodes = perft.divide(depth, moves);
+            long total = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                System.out.println(GameMove.toString(moves.get(i)) + ": " + nodes[i]);
+                total += nodes[i];
+            }
+            System.out.println("Total: " + total);
+            return;
+        }
+
+        for (int i = 1; i <= depth; i++) {
+            long start = System.nanoTime();
+            long nodes = perft.perft(i);
+            long time = Math.max(System.nanoTime() - start, 1);
+            System.out.printf("Depth %2d: %,15d nodes %,10.1f ms %,15.0f nodes/s%n",
+                    i, nodes, time / 1e6, nodes * 1e9 / time);
+        }
+    }
+
+}
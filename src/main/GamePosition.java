@@ -1,7 +1,38 @@
 package main;
 
+/**
+ * Tile of the board. Positions on the board are pre-allocated, so of returns the shared
+ * instance instead of creating a new one, and can also be addressed by the square
+ * (row * 8 + col), which is used by the bitboards and GameMove.
+ */
 public record GamePosition(int row, int col) {
 
+    public static final int SIZE = 8;
+
+    private static final GamePosition[] POSITIONS = new GamePosition[SIZE * SIZE];
+
+    static {
+        for (int i = 0; i < POSITIONS.length; i++) {
+            POSITIONS[i] = new GamePosition(i / SIZE, i % SIZE);
+        }
+    }
+
+    /**
+     * Returns the shared position of the tile. Positions outside the board are created,
+     * so that they can still be reported as wrong moves.
+     */
+    public static GamePosition of(int row, int col) {
+        return isOnBoard(row, col) ? POSITIONS[row * SIZE + col] : new GamePosition(row, col);
+    }
+
+    public static GamePosition of(int square) {
+        return POSITIONS[square];
+    }
+
+    public static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
     public boolean equals(Object obj) {
         if (obj instanceof GamePosition p) {
             return p.row() == row && p.col() == col;
@@ -9,11 +40,18 @@ public record GamePosition(int row, int col) {
     }
 
     public int hashCode() {
-        return row * 8 + col;
+        return row * SIZE + col;
     }
 
     public int getIndex(int size) {
         return row() * size + col();
     }
 
+    /**
+     * Returns the index of the tile on the 8x8 board, valid only for positions on the board.
+     */
+    public int square() {
+        return row * SIZE + col;
+    }
+
 }
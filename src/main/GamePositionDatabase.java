@@ -0,0 +1,276 @@
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores positions with the statistics of the games they occurred in, in a file mapped into
+ * memory. The file is a hash table of fixed-width records indexed by the Zobrist hash of
+ * the position (open addressing with linear probing), so a lookup reads the mapped pages
+ * directly and the data doesn't live on the heap. Layout of the file:
+ * <pre>
+ * header   64 bytes  magic, version, capacity (power of two) and amount of positions
+ * records  64 bytes  hash, white, black and queens bitboards, games, white wins,
+ *                    black wins, draws, flags (used, white to move), reserved
+ * </pre>
+ * The file is mapped in segments of 1 GiB, so it can be larger than the heap and than
+ * a single mapping. Only one writer may use the file at a time.
+ */
+public class GamePositionDatabase implements Closeable {
+
+    public static final int RECORD_SIZE = 64;
+
+    private static final int MAGIC = 0x434B5044;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private static final int HASH = 0;
+    private static final int WHITE = 8;
+    private static final int BLACK = 16;
+    private static final int QUEENS = 24;
+    private static final int GAMES = 32;
+    private static final int WHITE_WINS = 36;
+    private static final int BLACK_WINS = 40;
+    private static final int DRAWS = 44;
+    private static final int FLAGS = 48;
+    private static final byte USED = 1;
+    private static final byte WHITE_TURN = 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final boolean isWritable;
+    private final long capacity;
+    private final long mask;
+    private long size;
+
+    private GamePositionDatabase(FileChannel channel, boolean isWritable, long fileSize) throws IOException {
+        this.channel = channel;
+        this.isWritable = isWritable;
+        int count = (int) ((fileSize + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(isWritable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    start, Math.min(fileSize - start, 1L << SEGMENT_SHIFT));
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (segments[0].getInt(0) != MAGIC) throw new IOException("Not a position database.");
+        if (segments[0].getInt(4) != VERSION) {
+            throw new IOException("Unsupported position database version - " + segments[0].getInt(4));
+        }
+        capacity = segments[0].getLong(8);
+        mask = capacity - 1;
+        size = segments[0].getLong(16);
+    }
+
+    /**
+     * Creates the empty database for the given amount of positions, rounded up to the power
+     * of two. The table works best when it's filled at most to three quarters.
+     */
+    public static GamePositionDatabase create(Path path, long positions) throws IOException {
+        long capacity = Long.highestOneBit(Math.max(positions - 1, 1)) << 1;
+        long fileSize = HEADER_SIZE + capacity * RECORD_SIZE;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Writing the last byte sizes the file, the records stay zero (unused)
+            channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, capacity).putLong(16, 0);
+            return new GamePositionDatabase(channel, true, fileSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static GamePositionDatabase open(Path path, boolean isWritable) throws IOException {
+        FileChannel channel = isWritable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        if (channel.size() < HEADER_SIZE) {
+            channel.close();
+            throw new IOException("Not a position database.");
+        }
+        try {
+            return new GamePositionDatabase(channel, isWritable, channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the record of the position or -1 if it isn't stored.
+     */
+    public long find(GameBitboardState state) {
+        return find(state.getHash(), state.white, state.black, state.queens, state.isWhiteTurn);
+    }
+
+    public long find(long hash, long white, long black, long queens, boolean isWhiteTurn) {
+        for (long record = hash & mask, probes = 0; probes < capacity; record = (record + 1) & mask, probes++) {
+            MappedByteBuffer segment = segment(record);
+            int offset = offset(record);
+            byte flags = segment.get(offset + FLAGS);
+            if ((flags & USED) == 0) return -1;
+            if (segment.getLong(offset + HASH) == hash && segment.getLong(offset + WHITE) == white
+                    && segment.getLong(offset + BLACK) == black && segment.getLong(offset + QUEENS) == queens
+                    && ((flags & WHITE_TURN) != 0) == isWhiteTurn) return record;
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the game with the given result for the position, adding the position if it
+     * isn't stored yet. Returns its record.
+     */
+    public long add(GameBitboardState state, GamePlayerType winner) {
+        if (!isWritable) throw new RuntimeException("Position database is opened read-only.");
+        long hash = state.getHash();
+        for (long record = hash & mask, probes = 0; probes < capacity; record = (record + 1) & mask, probes++) {
+            MappedByteBuffer segment = segment(record);
+            int offset = offset(record);
+            byte flags = segment.get(offset + FLAGS);
+            if ((flags & USED) == 0) {
+                segment.putLong(offset + HASH, hash)
+                        .putLong(offset + WHITE, state.white)
+                        .putLong(offset + BLACK, state.black)
+                        .putLong(offset + QUEENS, state.queens)
+                        .put(offset + FLAGS, (byte) (USED | (state.isWhiteTurn ? WHITE_TURN : 0)));
+                segments[0].putLong(16, ++size);
+            } else if (segment.getLong(offset + HASH) != hash || segment.getLong(offset + WHITE) != state.white
+                    || segment.getLong(offset + BLACK) != state.black || segment.getLong(offset + QUEENS) != state.queens
+                    || ((flags & WHITE_TURN) != 0) != state.isWhiteTurn) {
+                continue;
+            }
+            increment(segment, offset + GAMES);
+            switch (winner) {
+                case White -> increment(segment, offset + WHITE_WINS);
+                case Black -> increment(segment, offset + BLACK_WINS);
+                case None -> increment(segment, offset + DRAWS);
+            }
+            return record;
+        }
+        throw new RuntimeException("Position database is full - " + capacity + " positions.");
+    }
+
+    public int getGames(long record) {
+        return segment(record).getInt(offset(record) + GAMES);
+    }
+
+    public int getWhiteWins(long record) {
+        return segment(record).getInt(offset(record) + WHITE_WINS);
+    }
+
+    public int getBlackWins(long record) {
+        return segment(record).getInt(offset(record) + BLACK_WINS);
+    }
+
+    public int getDraws(long record) {
+        return segment(record).getInt(offset(record) + DRAWS);
+    }
+
+    /**
+     * Puts the state into the position of the record.
+     */
+    public void load(long record, GameBitboardState state) {
+        MappedByteBuffer segment = segment(record);
+        int offset = offset(record);
+        state.init(segment.getLong(offset + WHITE), segment.getLong(offset + BLACK), segment.getLong(offset + QUEENS),
+                (segment.get(offset + FLAGS) & WHITE_TURN) != 0);
+    }
+
+    /**
+     * Adds the positions of the games in the log up to the given amount of moves from their
+     * start, counting the result of the game once for each of them, even if the position
+     * repeats within the game. Returns the amount of games.
+     */
+    public int addGames(GameRecordReader reader, int maxMoves) throws IOException {
+        GameBitboardState state = new GameBitboardState();
+        GameHistory counted = new GameHistory();
+        long[] result = new long[1];
+        int games = 0;
+        while (reader.next()) {
+            reader.init(state);
+            counted.clear();
+            addOnce(state, reader.getWinner(), counted);
+            int length = Math.min(reader.getLength(), maxMoves);
+            for (int i = 0; i < length; i++) {
+                state.processBatch(reader.getMoves(), i, 1, result);
+                if (!GameMoveResult.isCorrect(result[0])) break;
+                addOnce(state, reader.getWinner(), counted);
+            }
+            games++;
+        }
+        return games;
+    }
+
+    private void addOnce(GameBitboardState state, GamePlayerType winner, GameHistory counted) {
+        long hash = state.getHash();
+        if (counted.contains(hash)) return;
+        counted.add(hash);
+        add(state, winner);
+    }
+
+    private static void increment(MappedByteBuffer segment, int offset) {
+        segment.putInt(offset, segment.getInt(offset) + 1);
+    }
+
+    private MappedByteBuffer segment(long record) {
+        return segments[(int) ((HEADER_SIZE + record * RECORD_SIZE) >>> SEGMENT_SHIFT)];
+    }
+
+    private static int offset(long record) {
+        return (int) ((HEADER_SIZE + record * RECORD_SIZE) & SEGMENT_MASK);
+    }
+
+    /**
+     * Writes the changes of the mapped pages to the disk.
+     */
+    public void force() {
+        if (!isWritable) return;
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Builds the database from the game log, arguments: log, database, capacity, moves per game.
+     */
+    public static void main(String[] args) throws IOException {
+        Path log = Path.of(args.length > 0 ? args[0] : "games.ckrs");
+        Path path = Path.of(args.length > 1 ? args[1] : "positions.ckpd");
+        long capacity = args.length > 2 ? Long.parseLong(args[2]) : 1 << 20;
+        int maxMoves = args.length > 3 ? Integer.parseInt(args[3]) : Integer.MAX_VALUE;
+
+        long start = System.nanoTime();
+        try (var reader = new GameRecordReader(log); var database = create(path, capacity)) {
+            int games = database.addGames(reader, maxMoves);
+            System.out.printf("%,d games, %,d positions of %,d in %,.1f ms%n", games, database.size(),
+                    database.capacity(), (System.nanoTime() - start) / 1e6);
+        }
+    }
+
+}
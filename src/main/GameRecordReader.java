@@ -0,0 +1,132 @@
+package main;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads the binary game log written by GameRecordWriter one game at a time. The buffers
+ * of the current game are reused by next, so scanning the log doesn't allocate per game
+ * and never holds more than a single game in memory.
+ */
+public class GameRecordReader implements Closeable {
+
+    private static final GamePawnType[] TYPES = GamePawnType.values();
+    private static final GamePlayerType[] PLAYERS = GamePlayerType.values();
+
+    private final InputStream input;
+    private final GamePawnType[] start = new GamePawnType[64];
+    private boolean isCustomStart;
+    private GamePlayerType player;
+    private GamePlayerType winner;
+    private short[] moves = new short[256];
+    private int length;
+
+    public GameRecordReader(Path path) throws IOException {
+        this(Files.newInputStream(path));
+    }
+
+    public GameRecordReader(InputStream input) throws IOException {
+        this.input = new BufferedInputStream(input, 1 << 16);
+        byte[] magic = this.input.readNBytes(GameRecordWriter.MAGIC.length);
+        if (!Arrays.equals(magic, GameRecordWriter.MAGIC)) throw new IOException("Not a game log.");
+        int version = this.input.read();
+        if (version != GameRecordWriter.VERSION) throw new IOException("Unsupported game log version - " + version);
+    }
+
+    /**
+     * Reads the next game and returns false at the end of the log.
+     */
+    public boolean next() throws IOException {
+        int flags = input.read();
+        if (flags < 0) return false;
+        isCustomStart = (flags & GameRecordWriter.CUSTOM_START) != 0;
+        if (isCustomStart) {
+            for (int i = 0; i < 64; i += 2) {
+                int tiles = readByte();
+                start[i] = TYPES[tiles & 0xF];
+                start[i + 1] = TYPES[tiles >>> 4];
+            }
+            player = PLAYERS[readByte()];
+        } else {
+            player = GamePlayerType.White;
+        }
+        winner = PLAYERS[readByte()];
+        length = readVarint();
+        if (moves.length < length) moves = new short[Math.max(length, moves.length * 2)];
+        for (int i = 0; i < length; i++) {
+            moves[i] = (short) readVarint();
+        }
+        return true;
+    }
+
+    /**
+     * Puts the state into the starting position of the current game.
+     */
+    public void init(GameState state) {
+        if (isCustomStart) state.init(start, player);
+        else state.reset();
+    }
+
+    /**
+     * Plays the current game on the state with processBatch and returns the amount
+     * of processed moves. Results have to fit getLength packed results.
+     */
+    public int replay(GameState state, long[] results) {
+        init(state);
+        return state.processBatch(moves, 0, length, results);
+    }
+
+    public boolean isCustomStart() {
+        return isCustomStart;
+    }
+
+    /**
+     * Returns the starting board of the current game, valid only if it's a custom start.
+     */
+    public GamePawnType[] getStart() {
+        return start;
+    }
+
+    public GamePlayerType getPlayer() {
+        return player;
+    }
+
+    public GamePlayerType getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the moves of the current game packed as (from | to << 6), valid until next.
+     */
+    public short[] getMoves() {
+        return moves;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    private int readByte() throws IOException {
+        int value = input.read();
+        if (value < 0) throw new EOFException("Game log ends in the middle of the game.");
+        return value;
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int part = readByte();
+            value |= (part & 0x7F) << shift;
+            if ((part & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in the game log.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+}
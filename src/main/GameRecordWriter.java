@@ -0,0 +1,98 @@
+package main;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends played games to the binary game log read by GameRecordReader. The log starts with
+ * the magic bytes and the version, followed by the games one after another:
+ * <pre>
+ * flags      byte     bit 0 set when the game doesn't start from the initial board
+ * board      32 bytes ordinals of GamePawnType, two tiles per byte (only with bit 0)
+ * player     byte     ordinal of the player to move first (only with bit 0)
+ * winner     byte     ordinal of GamePlayerType, None for a draw or unfinished game
+ * length     varint   amount of moves
+ * moves      varint   (from | to << 6) for each move, squares as row * 8 + col
+ * </pre>
+ * Varints hold 7 bits per byte, lowest first, so a move takes at most two bytes.
+ */
+public class GameRecordWriter implements Closeable {
+
+    static final byte[] MAGIC = new byte[]{'C', 'K', 'R', 'S'};
+    static final int VERSION = 1;
+    static final int CUSTOM_START = 1;
+
+    private final OutputStream output;
+
+    /**
+     * Opens the log for appending, writing the header if the file is new or empty.
+     */
+    public GameRecordWriter(Path path) throws IOException {
+        boolean isEmpty = !Files.exists(path) || Files.size(path) == 0;
+        output = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        if (isEmpty) writeHeader();
+    }
+
+    /**
+     * Starts the new log in the stream.
+     */
+    public GameRecordWriter(OutputStream output) throws IOException {
+        this.output = new BufferedOutputStream(output);
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        output.write(MAGIC);
+        output.write(VERSION);
+    }
+
+    /**
+     * Writes the game started from the initial board.
+     */
+    public void write(GamePlayerType winner, short[] moves, int offset, int length) throws IOException {
+        write(null, GamePlayerType.White, winner, moves, offset, length);
+    }
+
+    /**
+     * Writes the game started from the given board, or from the initial one if it's null.
+     * Moves are packed as in GameState.processBatch.
+     */
+    public void write(GamePawnType[] start, GamePlayerType player, GamePlayerType winner,
+                      short[] moves, int offset, int length) throws IOException {
+        if (start == null) {
+            output.write(0);
+        } else {
+            output.write(CUSTOM_START);
+            for (int i = 0; i < 64; i += 2) {
+                output.write(start[i].ordinal() | start[i + 1].ordinal() << 4);
+            }
+            output.write(player.ordinal());
+        }
+        output.write(winner.ordinal());
+        writeVarint(length);
+        for (int i = 0; i < length; i++) {
+            writeVarint(moves[offset + i] & 0xFFF);
+        }
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+}
@@ -0,0 +1,311 @@
+package main;
+
+/**
+ * Looks for the best move of the current player with the iterative deepening alpha-beta
+ * search (negamax) on top of the bitboard backend. Each iteration starts from the best move
+ * of the previous one, captures are tried first and the leaves are extended with captures
+ * only, so that the evaluation isn't taken in the middle of an exchange. Results are kept
+ * in GameTranspositionTable, so the positions reached by different orders of moves are searched
+ * once, and the positions repeated on the searched line or in the game's history are scored
+ * as a draw. Positions found in GameTablebase are scored from it without searching further.
+ * The search stops when the time budget runs out or when stop is called from another thread.
+ */
+public class GameSearch {
+
+    public static final int WIN = 100_000;
+    public static final int MAX_PLY = 64;
+    public static final int DRAW = 0;
+    // Scores this close to WIN are the wins at a known distance, found by the search or in the tablebase
+    public static final int MATE_BOUND = MAX_PLY + GameTablebase.MAX_DISTANCE;
+    public static final int DEFAULT_TABLE_SIZE = 1 << 18;
+
+    private static final int INFINITY = WIN + 1;
+    private static final int PAWN = 100;
+    private static final int QUEEN = 300;
+    private static final int ADVANCE = 4;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final GameBitboardState state;
+    private final GameTranspositionTable table;
+    private final GameHistory history;
+    private GameTablebase tablebase;
+    private final GameMoveList[] lists = new GameMoveList[MAX_PLY + 1];
+    // Hashes of the positions on the searched line, indexed by ply
+    private final long[] line = new long[MAX_PLY + 1];
+    private long nodes;
+    private long deadline;
+    private boolean isAborted;
+    private volatile boolean isStopped;
+
+    public GameSearch(GameBitboardState state) {
+        this(state, new GameTranspositionTable(DEFAULT_TABLE_SIZE), new GameHistory());
+    }
+
+    /**
+     * Creates the search sharing the table with the previous searches. The history holds
+     * the hashes of the positions already played in the game.
+     */
+    public GameSearch(GameBitboardState state, GameTranspositionTable table, GameHistory history) {
+        this.state = state;
+        this.table = table;
+        this.history = history;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new GameMoveList();
+        }
+    }
+
+    /**
+     * Lets the search use the results of the endgames, or stop using them if it's null.
+     */
+    public void setTablebase(GameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Searches deeper and deeper until the time budget or the maximal depth is reached.
+     * Result of the last completed iteration is returned.
+     */
+    public GameSearchResult search(long millis, int maxDepth) {
+        table.newSearch();
+        isStopped = false;
+        return search(millis, 1, maxDepth);
+    }
+
+    /**
+     * Starts the iterative deepening at the given depth, which lets the helper threads
+     * of GameParallelSearch work ahead of the main one. The table's generation isn't
+     * advanced, since all the threads search the same move, and the stop isn't cleared,
+     * since it can come before the thread gets here (see clearStop).
+     */
+    GameSearchResult search(long millis, int minDepth, int maxDepth) {
+        long start = System.nanoTime();
+        deadline = start + millis * 1_000_000L;
+        nodes = 0;
+        isAborted = false;
+        line[0] = state.getHash();
+
+        GameMoveList root = lists[0];
+        if (state.generateMoves(root) == 0) {
+            return new GameSearchResult(GameSearchResult.NO_MOVE, -WIN, 0, 0, System.nanoTime() - start);
+        }
+        orderMoves(root);
+        long bestMove = root.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = Math.min(minDepth, maxDepth); depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            int alpha = -INFINITY;
+            long iterationMove = bestMove;
+            for (int i = 0; i < root.size(); i++) {
+                long move = root.get(i);
+                long undo = state.makeMove(move);
+                int score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+                state.unmakeMove(move, undo);
+                if (isAborted) break;
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = move;
+                }
+            }
+            // Results of the interrupted iteration are only partial
+            if (isAborted) break;
+            bestMove = iterationMove;
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(line[0], depth, toTable(bestScore, 0), GameTranspositionTable.EXACT, bestMove);
+            moveToFront(root, bestMove);
+            if (Math.abs(bestScore) >= WIN - MATE_BOUND) break;
+        }
+        return new GameSearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Interrupts the running search, which then returns its last completed iteration.
+     */
+    public void stop() {
+        isStopped = true;
+    }
+
+    /**
+     * Clears the stop before the threads of GameParallelSearch are started.
+     */
+    void clearStop() {
+        isStopped = false;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (++nodes % TIME_CHECK_INTERVAL == 0) checkTime();
+        if (isAborted) return 0;
+        long hash = state.getHash();
+        line[ply] = hash;
+        if (isRepetition(ply, hash)) return DRAW;
+        if (tablebase != null) {
+            int value = tablebase.probe(state);
+            if (value != GameTablebase.MISSING) return fromTablebase(value, ply);
+        }
+        if (depth <= 0 || ply >= MAX_PLY) return quiescence(ply, alpha, beta);
+
+        long entry = table.probe(hash);
+        if (entry != 0 && GameTranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(GameTranspositionTable.score(entry), ply);
+            int bound = GameTranspositionTable.bound(entry);
+            if (bound == GameTranspositionTable.EXACT
+                    || bound == GameTranspositionTable.LOWER && score >= beta
+                    || bound == GameTranspositionTable.UPPER && score <= alpha) return score;
+        }
+
+        GameMoveList moves = lists[ply];
+        int amount = state.generateMoves(moves);
+        // Player who can't move has lost, the sooner the worse
+        if (amount == 0) return -WIN + ply;
+        orderMoves(moves);
+        if (entry != 0) tableMoveToFront(moves, entry);
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        long bestMove = moves.get(0);
+        for (int i = 0; i < amount; i++) {
+            long move = moves.get(i);
+            long undo = state.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            state.unmakeMove(move, undo);
+            if (isAborted) return 0;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score >= beta) break;
+            if (score > alpha) alpha = score;
+        }
+        int bound = bestScore >= beta ? GameTranspositionTable.LOWER
+                : bestScore > originalAlpha ? GameTranspositionTable.EXACT : GameTranspositionTable.UPPER;
+        table.store(hash, depth, toTable(bestScore, ply), bound, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Checks the earlier positions of the same player on the searched line, then the game's
+     * history. Positions of the other player can't be equal, since the turn is hashed.
+     */
+    private boolean isRepetition(int ply, long hash) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (line[i] == hash) return true;
+        }
+        return history.contains(hash);
+    }
+
+    /**
+     * Scores of the win are stored relative to the stored position rather than the root,
+     * so that they stay correct when the position is reached at a different ply.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN - MATE_BOUND) return score + ply;
+        if (score <= -WIN + MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN - MATE_BOUND) return score - ply;
+        if (score <= -WIN + MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    /**
+     * Scores the result of the endgame like the win found by the search at its distance.
+     */
+    private static int fromTablebase(int value, int ply) {
+        if (GameTablebase.isWin(value)) return WIN - ply - GameTablebase.distance(value);
+        if (GameTablebase.isLoss(value)) return -WIN + ply + GameTablebase.distance(value);
+        return DRAW;
+    }
+
+    /**
+     * Captures aren't obligatory, so the player who can move can always stay with the static
+     * evaluation. Player who can't move has lost, even with the pieces left.
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        int standPat = evaluate(ply);
+        if (ply >= MAX_PLY) return standPat;
+        GameMoveList moves = lists[ply];
+        int amount = state.generateMoves(moves);
+        if (amount == 0) return -WIN + ply;
+        if (standPat >= beta) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        orderMoves(moves);
+        for (int i = 0; i < amount; i++) {
+            long move = moves.get(i);
+            // Captures are ordered first
+            if (!GameMove.isCapture(move)) break;
+            nodes++;
+            long undo = state.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            state.unmakeMove(move, undo);
+            if (score >= beta) return score;
+            if (score > alpha) alpha = score;
+        }
+        return alpha;
+    }
+
+    /**
+     * Scores the material and the advancement of the pawns from the point of view
+     * of the player to move.
+     */
+    private int evaluate(int ply) {
+        long own = state.isWhiteTurn ? state.white : state.black;
+        if (own == 0) return -WIN + ply;
+        long whitePawns = state.white & ~state.queens;
+        long blackPawns = state.black & ~state.queens;
+        int score = (Long.bitCount(whitePawns) - Long.bitCount(blackPawns)) * PAWN
+                + (Long.bitCount(state.white & state.queens) - Long.bitCount(state.black & state.queens)) * QUEEN;
+        for (int row = 0; row < 8; row++) {
+            long mask = 0xFFL << (row * 8);
+            score += (Long.bitCount(whitePawns & mask) * (7 - row) - Long.bitCount(blackPawns & mask) * row) * ADVANCE;
+        }
+        return state.isWhiteTurn ? score : -score;
+    }
+
+    /**
+     * Sorts the moves by the amount of captured pawns, then transformations into the queen.
+     */
+    static void orderMoves(GameMoveList moves) {
+        for (int i = 1; i < moves.size(); i++) {
+            long move = moves.get(i);
+            int key = orderKey(move);
+            int j = i - 1;
+            while (j >= 0 && orderKey(moves.get(j)) < key) {
+                moves.set(j + 1, moves.get(j));
+                j--;
+            }
+            moves.set(j + 1, move);
+        }
+    }
+
+    private static int orderKey(long move) {
+        return GameMove.capturedAmount(move) * 2 + (GameMove.isPromotion(move) ? 1 : 0);
+    }
+
+    static void moveToFront(GameMoveList moves, long move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) != move) continue;
+            for (int j = i; j > 0; j--) {
+                moves.set(j, moves.get(j - 1));
+            }
+            moves.set(0, move);
+            return;
+        }
+    }
+
+    private static void tableMoveToFront(GameMoveList moves, long entry) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (GameTranspositionTable.isMove(entry, moves.get(i))) {
+                moveToFront(moves, moves.get(i));
+                return;
+            }
+        }
+    }
+
+    private void checkTime() {
+        if (isStopped || System.nanoTime() > deadline) isAborted = true;
+    }
+
+}
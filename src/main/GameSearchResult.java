@@ -0,0 +1,29 @@
+package main;
+
+/**
+ * Contains results of the search for the best move.
+ * @param move Best move found encoded by GameMove or NO_MOVE if the player can't move
+ * @param score Evaluation of the move from the point of view of the player to move
+ * @param depth Depth of the last fully searched iteration
+ * @param nodes Amount of the visited positions
+ * @param nanos Time of the search in nanoseconds
+ */
+public record GameSearchResult (
+        long move,
+        int score,
+        int depth,
+        long nodes,
+        long nanos
+) {
+
+    public static final long NO_MOVE = -1;
+
+    public boolean hasMove() {
+        return move != NO_MOVE;
+    }
+
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+}
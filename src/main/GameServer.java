@@ -0,0 +1,185 @@
+package main;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hosts independent games for the clients connected over TCP, each session on its own
+ * virtual thread with its own bitboard state. Commands and replies are single lines:
+ * <pre>
+ * new                        -> ok                       (starts a new game)
+ * select row col             -> selected row col         (first tile, as with the mouse)
+ * select row col             -> same as process          (second tile plays the move)
+ * process row col row col    -> ok captured queen winner | error message
+ * moves                      -> moves from-to ...        (squares as row * 8 + col)
+ * snapshot                   -> board tiles player       (w/b pawns, W/B queens, . blank)
+ * quit                       -> bye
+ * </pre>
+ * Run as: java main.GameServer [port]
+ */
+public class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7878;
+
+    private static final int BACKLOG = 4096;
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+    private static final char[] TILES = new char[]{'w', 'b', 'W', 'B', '.'};
+
+    private final ServerSocket socket;
+    private final Thread acceptor;
+
+    /**
+     * Starts accepting the connections on the loopback interface. Port 0 picks a free one.
+     */
+    public GameServer(int port) throws IOException {
+        socket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        acceptor = Thread.ofPlatform().name("GameServer").daemon().start(this::accept);
+    }
+
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Accepts the clients until the server is closed. Other failures (e.g. running out of
+     * open files) are reported and retried after a pause, so they don't spin the thread.
+     */
+    private void accept() {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                Thread.ofVirtual().start(() -> serve(client));
+            } catch (IOException e) {
+                // Closing the server ends the loop
+                if (socket.isClosed()) return;
+                System.err.println("Accepting the client has failed - " + e.getMessage());
+                try {
+                    Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void serve(Socket client) {
+        try (client;
+             var reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+             var writer = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII))) {
+            client.setTcpNoDelay(true);
+            Session session = new Session();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String reply = session.execute(line);
+                writer.write(reply);
+                writer.newLine();
+                writer.flush();
+                if (reply.equals("bye")) return;
+            }
+        } catch (SocketException e) {
+            // Client has disconnected
+        } catch (IOException e) {
+            // Nothing would catch it on the session's thread, the session just ends
+            System.err.println("Session has failed - " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Game of a single client. Package-private, so that the protocol can be used without
+     * the socket.
+     */
+    static class Session {
+        private final GameState state = GameState.create(GameState.Backend.Bitboard);
+        private final GameMoveList moves = new GameMoveList();
+        private final byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        private final StringBuilder reply = new StringBuilder();
+        private GamePosition selected;
+
+        String execute(String line) {
+            String[] words = line.trim().split("\\s+");
+            try {
+                return switch (words[0]) {
+                    case "new" -> {
+                        state.reset();
+                        selected = null;
+                        yield "ok";
+                    }
+                    case "select" -> select(position(words, 1));
+                    case "process" -> process(position(words, 1), position(words, 3));
+                    case "moves" -> moves();
+                    case "snapshot" -> snapshot();
+                    case "quit" -> "bye";
+                    default -> "error Unknown command - " + words[0];
+                };
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                return "error Wrong arguments - " + line;
+            }
+        }
+
+        private static GamePosition position(String[] words, int index) {
+            return GamePosition.of(Integer.parseInt(words[index]), Integer.parseInt(words[index + 1]));
+        }
+
+        private String select(GamePosition position) {
+            if (selected == null) {
+                selected = position;
+                return "selected " + position.row() + " " + position.col();
+            }
+            GamePosition from = selected;
+            selected = null;
+            return process(from, position);
+        }
+
+        private String process(GamePosition from, GamePosition to) {
+            long result = state.processPacked(from, to);
+            if (!GameMoveResult.isCorrect(result)) return "error " + GameMoveResult.message(result);
+            long move = GameMoveResult.move(result);
+            return "ok " + GameMove.capturedAmount(move) + " " + (GameMove.isPromotion(move) ? 1 : 0)
+                    + " " + GameMoveResult.winner(result);
+        }
+
+        private String moves() {
+            reply.setLength(0);
+            reply.append("moves");
+            int amount = state.generateMoves(moves);
+            for (int i = 0; i < amount; i++) {
+                long move = moves.get(i);
+                reply.append(' ').append(GameMove.from(move)).append('-').append(GameMove.to(move));
+            }
+            return reply.toString();
+        }
+
+        private String snapshot() {
+            state.snapshot(snapshot);
+            reply.setLength(0);
+            reply.append("board ");
+            for (int i = 0; i < 64; i++) {
+                reply.append(TILES[snapshot[i]]);
+            }
+            return reply.append(' ').append(state.getCurrentPlayer()).toString();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(port);
+        System.out.println("Game server is listening on port " + server.getPort());
+        server.acceptor.join();
+    }
+
+}
@@ -0,0 +1,119 @@
+package main;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+/**
+ * Load generator of GameServer. Opens the given amount of sessions at once, each on its own
+ * virtual thread, waits until all are connected and then lets every session play random
+ * games through the moves and process commands. Latency of each process round trip is
+ * recorded and the percentiles are printed at the end. Without the port an in-process
+ * server is started. Tens of thousands of sessions need the limit of open files and
+ * the range of local ports raised accordingly.
+ * Run as: java main.GameServerLoad [sessions] [games per session] [port]
+ */
+public class GameServerLoad {
+
+    private static final int MAX_GAME_LENGTH = 300;
+
+    /**
+     * Plays the games of the single session and returns the latencies of its moves
+     * in nanoseconds.
+     */
+    private static long[] play(int port, int games, long seed, CountDownLatch connected, CountDownLatch started)
+            throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[64];
+        int amount = 0;
+        Socket socket;
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        } finally {
+            // Counted once whether connected or not, so the others don't wait for it
+            connected.countDown();
+        }
+        try (socket;
+             var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             var writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            started.await();
+            for (int game = 0; game < games; game++) {
+                send(writer, reader, "new");
+                for (int i = 0; i < MAX_GAME_LENGTH; i++) {
+                    String[] moves = send(writer, reader, "moves").split(" ");
+                    if (moves.length == 1) break;
+                    String[] move = moves[1 + random.nextInt(moves.length - 1)].split("-");
+                    int from = Integer.parseInt(move[0]);
+                    int to = Integer.parseInt(move[1]);
+                    long start = System.nanoTime();
+                    String reply = send(writer, reader, "process " + from / 8 + " " + from % 8
+                            + " " + to / 8 + " " + to % 8);
+                    if (amount == latencies.length) latencies = Arrays.copyOf(latencies, amount * 2);
+                    latencies[amount++] = System.nanoTime() - start;
+                    if (!reply.startsWith("ok")) throw new IOException("Move was rejected - " + reply);
+                    if (!reply.endsWith("None")) break;
+                }
+            }
+            send(writer, reader, "quit");
+        }
+        return Arrays.copyOf(latencies, amount);
+    }
+
+    private static String send(BufferedWriter writer, BufferedReader reader, String command) throws IOException {
+        writer.write(command);
+        writer.newLine();
+        writer.flush();
+        String reply = reader.readLine();
+        if (reply == null) throw new EOFException("Server has closed the session.");
+        return reply;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        GameServer server = args.length > 2 ? null : new GameServer(0);
+        int port = server != null ? server.getPort() : Integer.parseInt(args[2]);
+
+        var connected = new CountDownLatch(sessions);
+        var started = new CountDownLatch(1);
+        long[][] latencies = new long[sessions][];
+        long start;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                int session = i;
+                executor.submit(() -> {
+                    try {
+                        latencies[session] = play(port, games, session, connected, started);
+                    } catch (IOException | InterruptedException e) {
+                        throw new RuntimeException("Session " + session + " has failed.", e);
+                    }
+                    return null;
+                });
+            }
+            connected.await();
+            start = System.nanoTime();
+            started.countDown();
+        }
+        long time = System.nanoTime() - start;
+        if (server != null) server.close();
+
+        long[] all = Arrays.stream(latencies).filter(l -> l != null).flatMapToLong(Arrays::stream).sorted().toArray();
+        long failed = Arrays.stream(latencies).filter(l -> l == null).count();
+        System.out.printf("%,d sessions (%,d failed), %,d moves in %,.1f ms, %,.0f moves/s%n",
+                sessions, failed, all.length, time / 1e6, all.length * 1e9 / time);
+        System.out.printf("Latency per move: p50 %,.1f us, p99 %,.1f us, max %,.1f us%n",
+                percentile(all, 0.5) / 1e3, percentile(all, 0.99) / 1e3, percentile(all, 1) / 1e3);
+    }
+
+}
@@ -0,0 +1,187 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays many games between the chosen players without the user interface, spread over
+ * the given amount of threads. Every move is chosen from generateMoves and played with
+ * processPacked, so the simulation also checks that the validation accepts every generated
+ * move and plays it unchanged. A player who can't move loses (rule 6 in Main). The game is
+ * a draw when the same position occurs for the third time or the length limit is reached.
+ * Run as: java main.GameSimulation [games] [white] [black] [threads] [search depth]
+ */
+public class GameSimulation {
+
+    /**
+     * Ways of choosing the move.
+     */
+    public enum Player {
+        /** Plays a random move. */
+        Random,
+        /** Plays the move capturing the most pawns, preferring transformations into the queen. */
+        Greedy,
+        /** Plays the best move found by GameSearch to the fixed depth. */
+        Search
+    }
+
+    public static final int MAX_GAME_LENGTH = 300;
+
+    private static final int TABLE_SIZE = 1 << 16;
+
+    private final Player white;
+    private final Player black;
+    private final int threads;
+    private final int searchDepth;
+    private final long seed;
+
+    public GameSimulation(Player white, Player black, int threads, int searchDepth, long seed) {
+        if (threads < 1) throw new RuntimeException("Simulation needs at least one thread - " + threads);
+        this.white = white;
+        this.black = black;
+        this.threads = threads;
+        this.searchDepth = searchDepth;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays the games and returns their statistics. Results don't depend on the amount
+     * of threads, since every game has its own random generator.
+     */
+    public GameSimulationResult run(int games) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<GameSimulationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int first = i;
+                futures.add(executor.submit(() -> new Worker().play(first, games)));
+            }
+            GameSimulationResult result = GameSimulationResult.EMPTY;
+            for (Future<GameSimulationResult> future : futures) {
+                result = result.add(future.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Simulation was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Simulation has failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reusable state of a single thread, which plays every threads-th game.
+     */
+    private class Worker {
+        private final GameBitboardState state = new GameBitboardState();
+        private final GameMoveList moves = new GameMoveList();
+        private final GameHistory history = new GameHistory();
+        private final GameTranspositionTable table = new GameTranspositionTable(TABLE_SIZE);
+        private final GameSearch search = new GameSearch(state, table, history);
+
+        GameSimulationResult play(int first, int games) {
+            long start = System.nanoTime();
+            long whiteWins = 0;
+            long blackWins = 0;
+            long draws = 0;
+            long length = 0;
+            long played = 0;
+            for (int game = first; game < games; game += threads) {
+                SplittableRandom random = new SplittableRandom(seed + game);
+                state.reset();
+                history.clear();
+                history.add(state.getHash());
+                // Table left from the other games would make the results depend on the threads
+                if (white == Player.Search || black == Player.Search) table.clear();
+                GamePlayerType winner = GamePlayerType.None;
+                int moveNumber = 0;
+                for (; moveNumber < MAX_GAME_LENGTH; moveNumber++) {
+                    if (state.generateMoves(moves) == 0) {
+                        winner = state.getCurrentPlayer() == GamePlayerType.White
+                                ? GamePlayerType.Black : GamePlayerType.White;
+                        break;
+                    }
+                    long move = choose(state.isWhiteTurn ? white : black, random);
+                    long result = state.processPacked(GameMove.fromPosition(move), GameMove.toPosition(move));
+                    if (!GameMoveResult.isCorrect(result)) {
+                        throw new RuntimeException("Generated move was rejected - " + GameMove.toString(move)
+                                + ": " + GameMoveResult.message(result));
+                    }
+                    if (GameMoveResult.move(result) != move) {
+                        throw new RuntimeException("Generated move was played differently - " + GameMove.toString(move)
+                                + " played as " + GameMove.toString(GameMoveResult.move(result)));
+                    }
+                    winner = GameMoveResult.winner(result);
+                    if (winner != GamePlayerType.None) {
+                        moveNumber++;
+                        break;
+                    }
+                    history.add(state.getHash());
+                    if (history.count(state.getHash()) >= 3) {
+                        moveNumber++;
+                        break;
+                    }
+                }
+                switch (winner) {
+                    case White -> whiteWins++;
+                    case Black -> blackWins++;
+                    case None -> draws++;
+                }
+                length += moveNumber;
+                played++;
+            }
+            return new GameSimulationResult(played, whiteWins, blackWins, draws, length, System.nanoTime() - start);
+        }
+
+        private long choose(Player player, SplittableRandom random) {
+            return switch (player) {
+                case Random -> moves.get(random.nextInt(moves.size()));
+                case Greedy -> chooseGreedy(random);
+                case Search -> search.search(TimeUnit.HOURS.toMillis(1), searchDepth).move();
+            };
+        }
+
+        private long chooseGreedy(SplittableRandom random) {
+            long best = moves.get(0);
+            int bestKey = -1;
+            int ties = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                long move = moves.get(i);
+                int key = GameMove.capturedAmount(move) * 2 + (GameMove.isPromotion(move) ? 1 : 0);
+                if (key > bestKey) {
+                    best = move;
+                    bestKey = key;
+                    ties = 1;
+                } else if (key == bestKey && random.nextInt(++ties) == 0) {
+                    // Reservoir sampling picks one of the equal moves uniformly
+                    best = move;
+                }
+            }
+            return best;
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Player white = args.length > 1 ? Player.valueOf(args[1]) : Player.Random;
+        Player black = args.length > 2 ? Player.valueOf(args[2]) : Player.Greedy;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+
+        GameSimulationResult result = new GameSimulation(white, black, threads, depth, 42).run(games);
+        System.out.printf("%s vs %s on %d threads: %,d games in %,.1f ms, %,.0f games/s%n",
+                white, black, threads, result.games(), result.nanos() / 1e6, result.gamesPerSecond());
+        System.out.printf("White wins %.1f%%, black wins %.1f%%, draws %.1f%%, %.1f moves per game%n",
+                result.whiteWinRate() * 100, result.blackWinRate() * 100, result.drawRate() * 100,
+                result.averageLength());
+    }
+
+}
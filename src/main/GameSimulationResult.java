@@ -0,0 +1,52 @@
+package main;
+
+/**
+ * Contains statistics of the simulated games.
+ * @param games Amount of the played games
+ * @param whiteWins Amount of the games won by white
+ * @param blackWins Amount of the games won by black
+ * @param draws Amount of the games ended by the repetition or the length limit
+ * @param moves Amount of the moves played in all the games
+ * @param nanos Time of the simulation in nanoseconds
+ */
+public record GameSimulationResult (
+        long games,
+        long whiteWins,
+        long blackWins,
+        long draws,
+        long moves,
+        long nanos
+) {
+
+    public static final GameSimulationResult EMPTY = new GameSimulationResult(0, 0, 0, 0, 0, 0);
+
+    /**
+     * Sums the counts of both results, the time is the longer one, since they run in parallel.
+     */
+    public GameSimulationResult add(GameSimulationResult other) {
+        return new GameSimulationResult(games + other.games, whiteWins + other.whiteWins,
+                blackWins + other.blackWins, draws + other.draws, moves + other.moves,
+                Math.max(nanos, other.nanos));
+    }
+
+    public double gamesPerSecond() {
+        return nanos == 0 ? 0 : games * 1e9 / nanos;
+    }
+
+    public double averageLength() {
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    public double whiteWinRate() {
+        return games == 0 ? 0 : (double) whiteWins / games;
+    }
+
+    public double blackWinRate() {
+        return games == 0 ? 0 : (double) blackWins / games;
+    }
+
+    public double drawRate() {
+        return games == 0 ? 0 : (double) draws / games;
+    }
+
+}
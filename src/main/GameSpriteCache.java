@@ -0,0 +1,92 @@
+package main;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Keeps the pawn images scaled to the size of the tile in the format of the screen, so that
+ * painting the pawn is a plain copy. Only the last size of each type is kept, the sprites of
+ * the previous size are dropped when the board is resized. Until the image of the pawn is
+ * loaded, a plain disc is drawn in its place.
+ */
+public class GameSpriteCache {
+
+    private final Map<GamePawnType, BufferedImage> sources;
+    private final BufferedImage[] sprites = new BufferedImage[GamePawnType.values().length];
+    private final GraphicsConfiguration[] configurations = new GraphicsConfiguration[sprites.length];
+
+    public GameSpriteCache(Map<GamePawnType, BufferedImage> sources) {
+        this.sources = sources;
+    }
+
+    /**
+     * Tells whether there is the image of the given type, which isn't true for the blank tile.
+     */
+    public boolean contains(GamePawnType type) {
+        return type != GamePawnType.Blank;
+    }
+
+    /**
+     * Returns the image of the pawn of the given size or null for the blank tile.
+     * The configuration may be null if the component isn't displayed yet.
+     */
+    public BufferedImage get(GamePawnType type, int width, int height, GraphicsConfiguration configuration) {
+        if (!contains(type) || width <= 0 || height <= 0) return null;
+        BufferedImage source = sources.get(type);
+        int index = type.ordinal();
+        BufferedImage sprite = sprites[index];
+        if (sprite == null || sprite.getWidth() != width || sprite.getHeight() != height
+                || configurations[index] != configuration) {
+            sprite = source != null ? scale(source, width, height, configuration)
+                    : drawPlaceholder(type, width, height, configuration);
+            sprites[index] = sprite;
+            configurations[index] = configuration;
+        }
+        return sprite;
+    }
+
+    /**
+     * Drops all the sprites, e.g. after the source images have changed.
+     */
+    public void clear() {
+        Arrays.fill(sprites, null);
+        Arrays.fill(configurations, null);
+    }
+
+    private static BufferedImage createImage(int width, int height, GraphicsConfiguration configuration) {
+        return configuration != null
+                ? configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static BufferedImage drawPlaceholder(GamePawnType type, int width, int height,
+                                                 GraphicsConfiguration configuration) {
+        BufferedImage sprite = createImage(width, height, configuration);
+        boolean isWhite = type == GamePawnType.WhitePawn || type == GamePawnType.WhiteQueen;
+        Graphics2D g2d = sprite.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(isWhite ? Color.WHITE : Color.BLACK);
+        g2d.fillOval(width / 8, height / 8, width * 3 / 4, height * 3 / 4);
+        if (type == GamePawnType.WhiteQueen || type == GamePawnType.BlackQueen) {
+            // Queen is marked with the ring of the opposite color
+            g2d.setColor(isWhite ? Color.BLACK : Color.WHITE);
+            g2d.drawOval(width / 4, height / 4, width / 2, height / 2);
+        }
+        g2d.dispose();
+        return sprite;
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height,
+                                       GraphicsConfiguration configuration) {
+        BufferedImage sprite = createImage(width, height, configuration);
+        Graphics2D g2d = sprite.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return sprite;
+    }
+
+}
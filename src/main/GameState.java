@@ -1,18 +1,95 @@
 package main;
 
+import java.nio.ByteBuffer;
+
+/**
+ * Holds the state of the game and validates the moves. By default it is backed by the native
+ * Utp_Game_Project_Logic library, subclasses (e.g. GameBitboardState) can replace it with
+ * the pure-Java implementation of the same rules.
+ */
 public class GameState {
 
-    static {
-        System.loadLibrary("Utp_Game_Project_Logic");
+    /**
+     * Loads the native library on the first use, so that pure-Java backends can run on hosts
+     * without it.
+     */
+    private static class NativeLibrary {
+
+        static {
+            System.loadLibrary("Utp_Game_Project_Logic");
+        }
+
+        static void load() {}
+
+    }
+
+    /**
+     * Implementations of the game rules, which can be selected at the startup with the
+     * "game.backend" system property (e.g. -Dgame.backend=native).
+     */
+    public enum Backend {
+        Native, Bitboard;
+
+        public static Backend fromProperty() {
+            String name = System.getProperty("game.backend", Bitboard.name());
+            for (Backend backend : values()) {
+                if (backend.name().equalsIgnoreCase(name)) return backend;
+            }
+            throw new RuntimeException("Unknown game backend - " + name);
+        }
     }
 
     public record Initializer (GamePawnType[] state, GamePlayerType player) {}
 
-    public GameState() { init(); }
+    /**
+     * Layout of the board snapshot: ordinals of GamePawnType for the 64 tiles (row * 8 + col),
+     * followed by the ordinal of the current player and the amounts of white and black pawns.
+     */
+    public static final int SNAPSHOT_PLAYER = 64;
+    public static final int SNAPSHOT_WHITE_PAWNS = 65;
+    public static final int SNAPSHOT_BLACK_PAWNS = 66;
+    public static final int SNAPSHOT_SIZE = 67;
+
+    private final Backend backend;
 
-    public GameState(GamePawnType[] state, GamePlayerType currentPlayer) { init(state, currentPlayer); }
+    public GameState() {
+        this.backend = Backend.Native;
+        NativeLibrary.load();
+        init();
+    }
+
+    public GameState(GamePawnType[] state, GamePlayerType currentPlayer) {
+        this.backend = Backend.Native;
+        NativeLibrary.load();
+        init(state, currentPlayer);
+    }
 
-    public GameState(Initializer initializer) { init(initializer.state, initializer.player); }
+    public GameState(Initializer initializer) { this(initializer.state, initializer.player); }
+
+    /**
+     * Used by the pure-Java backends, which initialize the state on their own.
+     */
+    protected GameState(Backend backend) {
+        this.backend = backend;
+    }
+
+    public static GameState create(Backend backend) {
+        return switch (backend) {
+            case Native -> new GameState();
+            case Bitboard -> new GameBitboardState();
+        };
+    }
+
+    public static GameState create(Backend backend, Initializer initializer) {
+        return switch (backend) {
+            case Native -> new GameState(initializer);
+            case Bitboard -> new GameBitboardState(initializer);
+        };
+    }
+
+    public Backend getBackend() {
+        return backend;
+    }
 
     public native void init();
 
@@ -22,6 +99,13 @@ public class GameState {
 
     public native GamePawnType get(GamePosition position);
 
+    /**
+     * Returns the pawn on the tile given by the square (row * 8 + col).
+     */
+    public GamePawnType get(int square) {
+        return get(GamePosition.of(square));
+    }
+
     public native void reset();
 
     public native GamePlayerType getCurrentPlayer();
@@ -30,4 +114,151 @@ public class GameState {
 
     public native int getBlackPawnsAmount();
 
+    /**
+     * Processes the move like process, but returns the result packed into a long (see
+     * GameMoveResult.pack), which doesn't allocate on the bitboard backend. Results of the
+     * native module are converted and its errors are classified like in the bitboard backend.
+     */
+    public long processPacked(GamePosition from, GamePosition to) {
+        GameMoveResult result = process(from, to);
+        if (!result.isCorrect()) return GameMoveResult.packError(getError(from, to));
+        long captured = 0;
+        for (GamePosition position : result.takenPawns()) {
+            captured |= 1L << position.square();
+        }
+        return GameMoveResult.pack(GameMove.encode(from.square(), to.square(), result.isQueen(), captured),
+                result.winner(), GameMoveResult.CORRECT);
+    }
+
+    /**
+     * Tells why the move rejected by the native module is wrong. The rejected move leaves
+     * the board unchanged, so it can be read to find the cause.
+     */
+    private int getError(GamePosition from, GamePosition to) {
+        if (from == null || to == null || !GamePosition.isOnBoard(from.row(), from.col())
+                || !GamePosition.isOnBoard(to.row(), to.col())) return GameMoveResult.OUTSIDE;
+        GamePawnType pawn = get(from);
+        if (pawn == GamePawnType.Blank) return GameMoveResult.NO_PAWN;
+        boolean isWhite = pawn == GamePawnType.WhitePawn || pawn == GamePawnType.WhiteQueen;
+        if (isWhite != (getCurrentPlayer() == GamePlayerType.White)) return GameMoveResult.WRONG_TURN;
+        return GameMoveResult.FORBIDDEN;
+    }
+
+    /**
+     * Processes the moves packed as (from | to << 6) with tiles as row * 8 + col, e.g. taken
+     * from a recorded game, and writes the packed GameMoveResult of each into the results.
+     * Stops after the first incorrect move or the end of the game and returns the amount of
+     * processed moves. The native module processes the moves one by one.
+     */
+    public int processBatch(short[] moves, int offset, int length, long[] results) {
+        for (int i = 0; i < length; i++) {
+            int move = moves[offset + i];
+            long result = processPacked(GamePosition.of(move & 0x3F), GamePosition.of((move >>> 6) & 0x3F));
+            results[i] = result;
+            if (!GameMoveResult.isCorrect(result)
+                    || GameMoveResult.winner(result) != GamePlayerType.None) return i + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the whole board, the current player and the amounts of pawns into the array
+     * (see SNAPSHOT_SIZE). The native module has no bulk read, so this falls back to reading
+     * the tiles one by one.
+     */
+    public void snapshot(byte[] target) {
+        for (int i = 0; i < 64; i++) {
+            target[i] = (byte) get(i).ordinal();
+        }
+        target[SNAPSHOT_PLAYER] = (byte) getCurrentPlayer().ordinal();
+        target[SNAPSHOT_WHITE_PAWNS] = (byte) getWhitePawnsAmount();
+        target[SNAPSHOT_BLACK_PAWNS] = (byte) getBlackPawnsAmount();
+    }
+
+    /**
+     * Writes the snapshot into the buffer starting at its position, which is left unchanged.
+     * Works with both heap and direct buffers.
+     */
+    public void snapshot(ByteBuffer target) {
+        int base = target.position();
+        for (int i = 0; i < 64; i++) {
+            target.put(base + i, (byte) get(i).ordinal());
+        }
+        target.put(base + SNAPSHOT_PLAYER, (byte) getCurrentPlayer().ordinal());
+        target.put(base + SNAPSHOT_WHITE_PAWNS, (byte) getWhitePawnsAmount());
+        target.put(base + SNAPSHOT_BLACK_PAWNS, (byte) getBlackPawnsAmount());
+    }
+
+    /**
+     * Fills the list with all the legal moves of the current player (encoded by GameMove)
+     * and returns their amount. The native module doesn't expose its move generator, so
+     * its board is mirrored into the bitboard backend.
+     */
+    public int generateMoves(GameMoveList moves) {
+        return new GameBitboardState(getTiles(), getCurrentPlayer()).generateMoves(moves);
+    }
+
+    private GamePawnType[] getTiles() {
+        GamePawnType[] tiles = new GamePawnType[64];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = get(i);
+        }
+        return tiles;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position, which is the same for the same pieces on the
+     * same tiles and the same player to move. The bitboard backend updates it incrementally,
+     * the native module's board is mirrored to compute it.
+     */
+    public long getHash() {
+        byte[] tiles = new byte[SNAPSHOT_SIZE];
+        snapshot(tiles);
+        return new GameBitboardState(tiles).getHash();
+    }
+
+    /**
+     * Plays the move generated by generateMoves without validating it and returns the undo
+     * record - the captured queens - which allows unmakeMove to take it back. The native
+     * module can't take moves back, so its board is read, changed and initialized again.
+     */
+    public long makeMove(long move) {
+        GamePawnType[] tiles = getTiles();
+        long undo = 0;
+        for (long captured = GameMove.captured(move); captured != 0; captured &= captured - 1) {
+            int square = Long.numberOfTrailingZeros(captured);
+            if (tiles[square] == GamePawnType.WhiteQueen || tiles[square] == GamePawnType.BlackQueen) {
+                undo |= 1L << square;
+            }
+            tiles[square] = GamePawnType.Blank;
+        }
+        GamePawnType piece = tiles[GameMove.from(move)];
+        tiles[GameMove.from(move)] = GamePawnType.Blank;
+        if (GameMove.isPromotion(move)) {
+            piece = piece == GamePawnType.WhitePawn ? GamePawnType.WhiteQueen : GamePawnType.BlackQueen;
+        }
+        tiles[GameMove.to(move)] = piece;
+        init(tiles, getCurrentPlayer() == GamePlayerType.White ? GamePlayerType.Black : GamePlayerType.White);
+        return undo;
+    }
+
+    /**
+     * Takes back the move played by makeMove. Moves have to be taken back in reverse order.
+     */
+    public void unmakeMove(long move, long undo) {
+        GamePawnType[] tiles = getTiles();
+        GamePawnType piece = tiles[GameMove.to(move)];
+        boolean isWhite = piece == GamePawnType.WhitePawn || piece == GamePawnType.WhiteQueen;
+        if (GameMove.isPromotion(move)) piece = isWhite ? GamePawnType.WhitePawn : GamePawnType.BlackPawn;
+        tiles[GameMove.to(move)] = GamePawnType.Blank;
+        tiles[GameMove.from(move)] = piece;
+        for (long captured = GameMove.captured(move); captured != 0; captured &= captured - 1) {
+            int square = Long.numberOfTrailingZeros(captured);
+            boolean isQueen = (undo & (1L << square)) != 0;
+            tiles[square] = isWhite ? (isQueen ? GamePawnType.BlackQueen : GamePawnType.BlackPawn)
+                    : (isQueen ? GamePawnType.WhiteQueen : GamePawnType.WhitePawn);
+        }
+        init(tiles, isWhite ? GamePlayerType.White : GamePlayerType.Black);
+    }
+
 }
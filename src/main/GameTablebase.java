@@ -0,0 +1,247 @@
+package main;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the results of the endgames with few pieces, computed by GameTablebaseGenerator.
+ * Every material signature (white pawns, white queens, black pawns, black queens) has its
+ * own table with a byte per position: 0 for the draw, d for the win of the player to move
+ * in d plies and -d - 1 for the loss in d plies. Pieces only move diagonally, so they never
+ * leave the 32 tiles they start on, and pawns are never on their promotion row. Positions
+ * are indexed by the player to move and the combinations of tiles of every kind of piece.
+ * Tables are stored gzip compressed, one file per signature.
+ */
+public class GameTablebase {
+
+    public static final int MISSING = Integer.MIN_VALUE;
+    public static final int DRAW = 0;
+    // Longest distance, for which the loss still fits the byte of the table
+    public static final int MAX_DISTANCE = 127;
+
+    static final int WHITE_PAWN = 0;
+    static final int WHITE_QUEEN = 1;
+    static final int BLACK_PAWN = 2;
+    static final int BLACK_QUEEN = 3;
+    static final int MAX_KIND_PIECES = 7;
+
+    private static final int MAGIC = 0x434B4547;
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".ckeg";
+
+    // Tiles available to every kind of piece in the ascending order and the reverse lookup
+    static final int[][] SQUARES = new int[4][];
+    static final int[][] INDEX = new int[4][64];
+    static final int[][] BINOMIAL = new int[33][MAX_KIND_PIECES + 1];
+
+    static {
+        for (int kind = 0; kind < 4; kind++) {
+            int[] squares = new int[64];
+            int amount = 0;
+            for (int square = 0; square < 64; square++) {
+                int row = square / 8;
+                boolean isAllowed = (row + square % 8) % 2 == 1
+                        && !(kind == WHITE_PAWN && row == 0) && !(kind == BLACK_PAWN && row == 7);
+                INDEX[kind][square] = isAllowed ? amount : -1;
+                if (isAllowed) squares[amount++] = square;
+            }
+            SQUARES[kind] = Arrays.copyOf(squares, amount);
+        }
+        for (int n = 0; n < BINOMIAL.length; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MAX_KIND_PIECES); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final int pieces;
+    // Indexed by the signature, null for the ones with more pieces
+    final byte[][] tables = new byte[1 << 12][];
+
+    GameTablebase(int pieces) {
+        this.pieces = pieces;
+    }
+
+    /**
+     * Returns the most pieces of the positions in the tables.
+     */
+    public int getPieces() {
+        return pieces;
+    }
+
+    public static boolean isWin(int value) {
+        return value > 0;
+    }
+
+    public static boolean isLoss(int value) {
+        return value < 0 && value != MISSING;
+    }
+
+    /**
+     * Returns the amount of plies to the end of the game with the best play.
+     */
+    public static int distance(int value) {
+        return value < 0 ? -value - 1 : value;
+    }
+
+    /**
+     * Returns the result of the position for the player to move or MISSING if it has too
+     * many pieces or pieces on the tiles never reached in the game.
+     */
+    public int probe(GameBitboardState state) {
+        long own = state.isWhiteTurn ? state.white : state.black;
+        if (own == 0) return -1;
+        if (Long.bitCount(state.white | state.black) > pieces) return MISSING;
+        byte[] table = tables[signature(state.white, state.black, state.queens)];
+        if (table == null) return MISSING;
+        int index = index(state.white, state.black, state.queens, state.isWhiteTurn);
+        return index < 0 ? MISSING : table[index];
+    }
+
+    /**
+     * Returns the move leading to the best result for the player to move: the fastest win,
+     * the draw or the slowest loss. Returns GameSearchResult.NO_MOVE if the position is
+     * missing or the player can't move.
+     */
+    public long bestMove(GameBitboardState state) {
+        if (probe(state) == MISSING) return GameSearchResult.NO_MOVE;
+        GameMoveList moves = new GameMoveList();
+        int amount = state.generateMoves(moves);
+        long best = GameSearchResult.NO_MOVE;
+        int bestRank = Integer.MIN_VALUE;
+        for (int i = 0; i < amount; i++) {
+            long move = moves.get(i);
+            long undo = state.makeMove(move);
+            int value = probe(state);
+            state.unmakeMove(move, undo);
+            // Loss of the opponent is the win of the player
+            int rank = isLoss(value) ? 1000 - distance(value) : isWin(value) ? -1000 + distance(value) : 0;
+            if (rank > bestRank) {
+                best = move;
+                bestRank = rank;
+            }
+        }
+        return best;
+    }
+
+    static int signature(long white, long black, long queens) {
+        return Long.bitCount(white & ~queens) | Long.bitCount(white & queens) << 3
+                | Long.bitCount(black & ~queens) << 6 | Long.bitCount(black & queens) << 9;
+    }
+
+    static int count(int signature, int kind) {
+        return (signature >>> (kind * 3)) & MAX_KIND_PIECES;
+    }
+
+    static int total(int signature) {
+        return count(signature, WHITE_PAWN) + count(signature, WHITE_QUEEN)
+                + count(signature, BLACK_PAWN) + count(signature, BLACK_QUEEN);
+    }
+
+    /**
+     * Returns the amount of positions of the signature, both players to move.
+     */
+    static int size(int signature) {
+        long size = 2;
+        for (int kind = 0; kind < 4; kind++) {
+            size *= BINOMIAL[SQUARES[kind].length][count(signature, kind)];
+        }
+        if (size > Integer.MAX_VALUE) throw new RuntimeException("Endgame table is too large - " + signature);
+        return (int) size;
+    }
+
+    /**
+     * Returns the index of the position in the table of its signature or -1 if a piece is
+     * on the tile never reached in the game.
+     */
+    static int index(long white, long black, long queens, boolean isWhiteTurn) {
+        int index = isWhiteTurn ? 0 : 1;
+        index = rank(index, white & ~queens, WHITE_PAWN);
+        index = rank(index, white & queens, WHITE_QUEEN);
+        index = rank(index, black & ~queens, BLACK_PAWN);
+        return rank(index, black & queens, BLACK_QUEEN);
+    }
+
+    /**
+     * Appends the rank of the combination of tiles of the pieces to the index.
+     */
+    private static int rank(int index, long pieces, int kind) {
+        if (index < 0) return -1;
+        int rank = 0;
+        int i = 0;
+        for (; pieces != 0; pieces &= pieces - 1) {
+            int position = INDEX[kind][Long.numberOfTrailingZeros(pieces)];
+            if (position < 0) return -1;
+            rank += BINOMIAL[position][++i];
+        }
+        return index * BINOMIAL[SQUARES[kind].length][i] + rank;
+    }
+
+    /**
+     * Stores the tables in the directory, one file per signature.
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (int signature = 0; signature < tables.length; signature++) {
+            if (tables[signature] == null) continue;
+            try (var output = new DataOutputStream(new GZIPOutputStream(
+                    Files.newOutputStream(directory.resolve(name(signature))), 1 << 16))) {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                output.writeShort(signature);
+                output.writeInt(tables[signature].length);
+                output.write(tables[signature]);
+            }
+        }
+    }
+
+    /**
+     * Reads the tables of the most pieces, for which all the files are in the directory.
+     */
+    public static GameTablebase read(Path directory) throws IOException {
+        int pieces = 1;
+        while (pieces < GameTablebaseGenerator.MAX_PIECES && GameTablebaseGenerator.signatures(pieces + 1).stream()
+                .allMatch(signature -> Files.exists(directory.resolve(name(signature))))) {
+            pieces++;
+        }
+        if (pieces < 2) throw new IOException("No endgame tables in the directory - " + directory);
+        return read(directory, pieces);
+    }
+
+    /**
+     * Reads the tables of all the signatures up to the given amount of pieces.
+     */
+    public static GameTablebase read(Path directory, int pieces) throws IOException {
+        GameTablebase tablebase = new GameTablebase(pieces);
+        for (int signature : GameTablebaseGenerator.signatures(pieces)) {
+            Path path = directory.resolve(name(signature));
+            if (!Files.exists(path)) throw new IOException("Missing endgame table - " + path);
+            try (var input = new DataInputStream(new GZIPInputStream(Files.newInputStream(path), 1 << 16))) {
+                if (input.readInt() != MAGIC) throw new IOException("Not an endgame table - " + path);
+                int version = input.readByte();
+                if (version != VERSION) throw new IOException("Unsupported endgame table version - " + version);
+                if (input.readShort() != signature || input.readInt() != size(signature)) {
+                    throw new IOException("Endgame table doesn't match its name - " + path);
+                }
+                byte[] table = new byte[size(signature)];
+                input.readFully(table);
+                tablebase.tables[signature] = table;
+            }
+        }
+        return tablebase;
+    }
+
+    /**
+     * Names the file by the amounts of white pawns and queens, then black pawns and queens.
+     */
+    static String name(int signature) {
+        return "" + count(signature, WHITE_PAWN) + count(signature, WHITE_QUEEN)
+                + count(signature, BLACK_PAWN) + count(signature, BLACK_QUEEN) + EXTENSION;
+    }
+
+}
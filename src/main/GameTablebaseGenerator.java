@@ -0,0 +1,222 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Computes GameTablebase for all the positions up to the given amount of pieces with the
+ * retrograde analysis. Signatures are solved from the fewest pieces and pawns, so the
+ * captures and the promotions always lead to the already solved tables. Each table is
+ * solved in rounds: the round d finds the positions won in d plies (a move to the position
+ * lost in d - 1 plies) and lost in d plies (every move leads to the position won in at most
+ * d - 1 plies). Positions left after the last round are draws. Every round is split between
+ * the threads, which only write their own part of the table and ignore the values written
+ * in the current round, so the result doesn't depend on the amount of threads.
+ * Run as: java main.GameTablebaseGenerator [directory] [pieces] [threads]
+ */
+public class GameTablebaseGenerator {
+
+    public static final int MAX_PIECES = GameTablebase.MAX_KIND_PIECES;
+
+    private static final int CHUNK = 1 << 14;
+
+    private final int pieces;
+    private final int threads;
+    private final GameTablebase tablebase;
+    // Longest distance of the solved tables, the rounds can't stop before it's passed
+    private int maxDistance;
+
+    public GameTablebaseGenerator(int pieces, int threads) {
+        if (pieces < 2 || pieces > MAX_PIECES) {
+            throw new RuntimeException("Endgame tables need 2 to " + MAX_PIECES + " pieces - " + pieces);
+        }
+        if (threads < 1) throw new RuntimeException("Generator needs at least one thread - " + threads);
+        this.pieces = pieces;
+        this.threads = threads;
+        tablebase = new GameTablebase(pieces);
+    }
+
+    /**
+     * Returns the signatures of the positions with both players having a piece, in the
+     * order of solving.
+     */
+    static List<Integer> signatures(int pieces) {
+        List<Integer> signatures = new ArrayList<>();
+        for (int signature = 0; signature < 1 << 12; signature++) {
+            int white = GameTablebase.count(signature, GameTablebase.WHITE_PAWN)
+                    + GameTablebase.count(signature, GameTablebase.WHITE_QUEEN);
+            int black = GameTablebase.count(signature, GameTablebase.BLACK_PAWN)
+                    + GameTablebase.count(signature, GameTablebase.BLACK_QUEEN);
+            if (white > 0 && black > 0 && white + black <= pieces) signatures.add(signature);
+        }
+        signatures.sort(Comparator.comparingInt(GameTablebase::total)
+                .thenComparingInt(signature -> GameTablebase.count(signature, GameTablebase.WHITE_PAWN)
+                        + GameTablebase.count(signature, GameTablebase.BLACK_PAWN)));
+        return signatures;
+    }
+
+    /**
+     * Solves all the tables.
+     */
+    public GameTablebase generate() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Worker[] workers = new Worker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Worker();
+            }
+            for (int signature : signatures(pieces)) {
+                solve(executor, workers, signature);
+            }
+            return tablebase;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void solve(ExecutorService executor, Worker[] workers, int signature) {
+        byte[] table = new byte[GameTablebase.size(signature)];
+        tablebase.tables[signature] = table;
+        for (int round = 0; ; round++) {
+            if (round > GameTablebase.MAX_DISTANCE) {
+                throw new RuntimeException("Distance doesn't fit the endgame table - " + GameTablebase.name(signature));
+            }
+            int changed = 0;
+            try {
+                List<Future<Integer>> futures = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    Worker worker = workers[i];
+                    int first = i;
+                    int currentRound = round;
+                    futures.add(executor.submit(() -> worker.solve(signature, table, currentRound, first)));
+                }
+                for (Future<Integer> future : futures) {
+                    changed += future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Generator was interrupted.", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Generator has failed.", e.getCause());
+            }
+            if (changed > 0) maxDistance = Math.max(maxDistance, round);
+            // Later rounds could still follow the moves into the other tables
+            else if (round > maxDistance + 1) return;
+        }
+    }
+
+    /**
+     * Reusable state of a single thread, which solves every threads-th chunk of the table.
+     */
+    private class Worker {
+        private final GameBitboardState state = new GameBitboardState();
+        private final GameMoveList moves = new GameMoveList();
+        private final long[] groups = new long[4];
+
+        int solve(int signature, byte[] table, int round, int first) {
+            int changed = 0;
+            for (int start = first * CHUNK; start < table.length; start += threads * CHUNK) {
+                for (int index = start; index < Math.min(start + CHUNK, table.length); index++) {
+                    if (table[index] != 0 || !decode(signature, index)) continue;
+                    int value = solve(round);
+                    if (value != 0) {
+                        table[index] = (byte) value;
+                        changed++;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Returns the value of the position found in the round or 0 if it's still unknown.
+         */
+        private int solve(int round) {
+            int amount = state.generateMoves(moves);
+            if (round == 0) return amount == 0 ? -1 : 0;
+            boolean isLost = true;
+            for (int i = 0; i < amount; i++) {
+                long move = moves.get(i);
+                long undo = state.makeMove(move);
+                int value = tablebase.probe(state);
+                state.unmakeMove(move, undo);
+                if (value == GameTablebase.MISSING) {
+                    throw new RuntimeException("Move leads out of the endgame tables - " + GameMove.toString(move));
+                }
+                // Values written in the current round are ignored
+                if (value != 0 && GameTablebase.distance(value) >= round) {
+                    isLost = false;
+                    continue;
+                }
+                if (GameTablebase.isLoss(value)) return round;
+                if (!GameTablebase.isWin(value)) isLost = false;
+            }
+            return isLost ? -round - 1 : 0;
+        }
+
+        /**
+         * Puts the state into the position of the index, returning false if the pieces
+         * of the position overlap.
+         */
+        private boolean decode(int signature, int index) {
+            Arrays.fill(groups, 0);
+            for (int kind = 3; kind >= 0; kind--) {
+                int count = GameTablebase.count(signature, kind);
+                int[] squares = GameTablebase.SQUARES[kind];
+                int combinations = GameTablebase.BINOMIAL[squares.length][count];
+                int rank = index % combinations;
+                index /= combinations;
+                // The largest position comes first in the combinatorial number system
+                int position = squares.length - 1;
+                for (int i = count; i > 0; i--) {
+                    while (GameTablebase.BINOMIAL[position][i] > rank) position--;
+                    rank -= GameTablebase.BINOMIAL[position][i];
+                    groups[kind] |= 1L << squares[position];
+                    position--;
+                }
+            }
+            long white = groups[GameTablebase.WHITE_PAWN] | groups[GameTablebase.WHITE_QUEEN];
+            long black = groups[GameTablebase.BLACK_PAWN] | groups[GameTablebase.BLACK_QUEEN];
+            if ((white & black) != 0 || (groups[GameTablebase.WHITE_PAWN] & groups[GameTablebase.WHITE_QUEEN]) != 0
+                    || (groups[GameTablebase.BLACK_PAWN] & groups[GameTablebase.BLACK_QUEEN]) != 0) return false;
+            state.init(white, black, groups[GameTablebase.WHITE_QUEEN] | groups[GameTablebase.BLACK_QUEEN],
+                    index == 0);
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "tablebase");
+        int pieces = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        GameTablebase tablebase = new GameTablebaseGenerator(pieces, threads).generate();
+        long positions = 0;
+        long wins = 0;
+        long losses = 0;
+        int longest = 0;
+        for (byte[] table : tablebase.tables) {
+            if (table == null) continue;
+            positions += table.length;
+            for (byte value : table) {
+                if (GameTablebase.isWin(value)) wins++;
+                if (GameTablebase.isLoss(value)) losses++;
+                if (value != 0) longest = Math.max(longest, GameTablebase.distance(value));
+            }
+        }
+        tablebase.write(directory);
+        System.out.printf("%d pieces on %d threads: %,d positions (%,d won, %,d lost) in %,.1f ms, "
+                + "longest win %d plies%n", pieces, threads, positions, wins, losses,
+                (System.nanoTime() - start) / 1e6, longest);
+    }
+
+}
@@ -4,7 +4,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.Arrays;
 
 /**
  * Handles display and input taken by the game cell in the application's GUI.
@@ -15,8 +14,8 @@ public class GameTile extends JPanel {
     private final GameController controller;
     private final GamePosition position;
     private final GameCursor cursor;
-    private boolean hasPawn;
-    private boolean isMarked;
+    private GamePawn pawn;
+    private int highlights;
 
     public GameTile(GameController controller, GameCursor cursor,
                     GamePosition position, Color color) {
@@ -41,17 +40,7 @@ public class GameTile extends JPanel {
     }
 
     public void mark() {
-        if (isMarked) {
-            unsetMarker();
-            controller.unselect();
-            isMarked = false;
-        } else {
-            setMarker();
-            controller.select(position.row(), position.col());
-            isMarked = true;
-        }
-        cursor.setCursor(position);
-        cursor.hideCursor();
+        controller.click(position);
     }
 
     @Override
@@ -59,37 +48,36 @@ public class GameTile extends JPanel {
         super.paintComponent(g);
     }
 
-    public void setMarker() {
-        var marker = new GameMarker(new Color(0x55, 0xB2, 0xFF));
-        add(marker);
-        repaint();
-        revalidate();
-        isMarked = true;
+    /**
+     * Highlights are painted over the pawn.
+     */
+    @Override
+    protected void paintChildren(Graphics g) {
+        super.paintChildren(g);
+        if (highlights != 0) GameBoard.paintHighlights((Graphics2D) g, 0, 0, getWidth(), getHeight(), highlights);
     }
 
-    public void unsetMarker() {
-        Arrays.stream(getComponents())
-                .filter(c -> c instanceof GameMarker)
-                .forEach(this::remove);
+    /**
+     * Sets the flags of GameBoard highlights shown on the tile.
+     */
+    public void setHighlights(int highlights) {
+        this.highlights = highlights;
         repaint();
-        revalidate();
-        isMarked = false;
     }
 
     public void setPawn(GamePawn pawn) {
         if (!pawn.isBlank()) {
             this.add(pawn);
-            this.hasPawn = true;
+            this.pawn = pawn;
         }
     }
 
     public void unsetPawn() {
-        Arrays.stream(getComponents())
-                .filter(c -> c instanceof GamePawn)
-                .forEach(this::remove);
+        if (pawn == null) return;
+        remove(pawn);
         repaint();
         revalidate();
-        this.hasPawn = false;
+        this.pawn = null;
     }
 
     public GameCursor getGameCursor() {
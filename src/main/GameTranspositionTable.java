@@ -0,0 +1,110 @@
+package main;
+
+/**
+ * Fixed-size table of the search results keyed by the Zobrist hash of the position. Entries
+ * are packed into two longs of a single array - the data and the key XORed with the data - so
+ * the table doesn't allocate and can be shared between threads without locks: an entry torn
+ * by concurrent writes doesn't match its key and is treated as a miss.
+ */
+public class GameTranspositionTable {
+
+    /**
+     * Decides whether the new entry replaces the one already stored in its slot.
+     */
+    public enum Replacement {
+        /** Always keep the newest entry. */
+        Always,
+        /** Keep the deeper entry, unless it is left from one of the previous searches. */
+        DepthPreferred
+    }
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    /*
+     * Layout of the data: bits 0-11 hold the tiles of the best move (as in GameMove), bits 12-31
+     * the score, bits 32-38 the depth, bits 39-40 the bound, bits 41-48 the search generation
+     * and bit 63 marks the used entries.
+     */
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final long USED = 1L << 63;
+
+    private final long[] entries;
+    private final int mask;
+    private final Replacement replacement;
+    private int generation;
+
+    /**
+     * Creates the table with the given amount of entries, rounded down to the power of two.
+     */
+    public GameTranspositionTable(int size, Replacement replacement) {
+        int capacity = Integer.highestOneBit(Math.max(size, 1));
+        this.entries = new long[capacity * 2];
+        this.mask = capacity - 1;
+        this.replacement = replacement;
+    }
+
+    public GameTranspositionTable(int size) {
+        this(size, Replacement.DepthPreferred);
+    }
+
+    /**
+     * Marks the start of the new search, so that the older entries are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(entries, 0);
+    }
+
+    /**
+     * Returns the stored data of the position or 0 if it isn't stored.
+     */
+    public long probe(long key) {
+        int index = ((int) key & mask) * 2;
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key && (data & USED) != 0 ? data : 0;
+    }
+
+    public void store(long key, int depth, int score, int bound, long move) {
+        int index = ((int) key & mask) * 2;
+        long old = entries[index + 1];
+        if (replacement == Replacement.DepthPreferred && (old & USED) != 0
+                && (entries[index] ^ old) != key && generation(old) == generation && depth(old) > depth) return;
+        long data = USED
+                | (move & 0xFFF)
+                | ((long) (score + SCORE_OFFSET) << 12)
+                | ((long) Math.min(depth, 127) << 32)
+                | ((long) bound << 39)
+                | ((long) generation << 41);
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    public static int score(long data) {
+        return (int) (data >>> 12 & 0xFFFFF) - SCORE_OFFSET;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32 & 0x7F);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 39 & 0x3);
+    }
+
+    /**
+     * Tells whether the stored best move has the same tiles as the given move.
+     */
+    public static boolean isMove(long data, long move) {
+        return (data & 0xFFF) == (move & 0xFFF);
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 41 & 0xFF);
+    }
+
+}
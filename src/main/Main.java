@@ -20,7 +20,10 @@ The Checkers game implemented by this code assumes the following rules:
    opponents pawn is capture. Also, such far range capture does not allow for multi-capture chain.
    Only one pawn can be captured in such way during a single move by the queen.
 5. When pawn reaches the end of the board it transforms into the queen.
-6. The winner is a player, who manages to capture all the opponents pawns.
+6. The winner is a player, who manages to capture all the opponents pawns, or whose opponent
+   can't make any move.
+7. When the same position with the same player to move occurs for the third time, the game
+   ends with a draw.
  */
 ///////////////////////////////
 
@@ -0,0 +1,15 @@
+package tests;
+
+import main.GameState;
+
+/**
+ * Runs the capturing scenarios suite against the pure-Java bitboard backend.
+ */
+public class GameBitboardStateCaptureTest extends GameStateCaptureTest {
+
+    @Override
+    protected GameState.Backend getBackend() {
+        return GameState.Backend.Bitboard;
+    }
+
+}
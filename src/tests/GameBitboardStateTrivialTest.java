@@ -0,0 +1,15 @@
+package tests;
+
+import main.GameState;
+
+/**
+ * Runs the trivial functionalities suite against the pure-Java bitboard backend.
+ */
+public class GameBitboardStateTrivialTest extends GameStateTrivialTest {
+
+    @Override
+    protected GameState.Backend getBackend() {
+        return GameState.Backend.Bitboard;
+    }
+
+}
@@ -0,0 +1,84 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * Dedicated to testing the change sets used to update the board. Applying the changes
+ * of the moves and the reset to the shown board has to give the board of the state.
+ */
+public class GameChangesTest {
+
+    private static void apply(GameChanges changes, byte[] shown, GameState state) {
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        for (long bits = changes.changed(); bits != 0; bits &= bits - 1) {
+            int square = Long.numberOfTrailingZeros(bits);
+            shown[square] = snapshot[square];
+        }
+    }
+
+    private static void assertShown(byte[] shown, GameState state) {
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        for (int i = 0; i < 64; i++) {
+            Assertions.assertEquals(snapshot[i], shown[i]);
+        }
+    }
+
+    @Test
+    public void testIfCaptureAndPromotionAreChanged() {
+        var descriptor = new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- Bp -- -- -- -- --
+                -- -- -- Wp -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                """
+        );
+        var state = GameState.create(GameState.Backend.Bitboard,
+                new GameState.Initializer(descriptor.getState(), GamePlayerType.White));
+        var from = new GamePosition(2, 3);
+        var to = new GamePosition(0, 1);
+        var changes = GameChanges.ofMove(GameMoveResult.move(state.processPacked(from, to)));
+        Assertions.assertEquals(1L << 19, changes.vacated());
+        Assertions.assertEquals(1L << 1, changes.occupied());
+        Assertions.assertEquals(1L << 1, changes.promoted());
+        Assertions.assertEquals(1L << 10, changes.captured());
+    }
+
+    @Test
+    public void testIfChangesOfGameAndResetGiveTheBoard() {
+        var state = GameState.create(GameState.Backend.Bitboard);
+        byte[] shown = new byte[GameState.SNAPSHOT_SIZE];
+        Arrays.fill(shown, (byte) GamePawnType.Blank.ordinal());
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        apply(GameChanges.between(shown, snapshot), shown, state);
+        assertShown(shown, state);
+
+        GameMoveList moves = new GameMoveList();
+        for (int i = 0; i < 40 && state.generateMoves(moves) > 0; i++) {
+            long move = moves.get(i % moves.size());
+            long result = state.processPacked(GameMove.fromPosition(move), GameMove.toPosition(move));
+            apply(GameChanges.ofMove(GameMoveResult.move(result)), shown, state);
+            assertShown(shown, state);
+        }
+
+        state.reset();
+        state.snapshot(snapshot);
+        var changes = GameChanges.between(shown, snapshot);
+        Assertions.assertFalse(changes.isEmpty());
+        apply(changes, shown, state);
+        assertShown(shown, state);
+        Assertions.assertTrue(GameChanges.between(shown, snapshot).isEmpty());
+    }
+
+}
@@ -0,0 +1,103 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Dedicated to testing the Zobrist hash of the position. The hash updated by the moves has to
+ * be equal to the one computed from scratch, has to be restored by unmakeMove and has to be
+ * the same for the position reached by different orders of moves.
+ */
+public class GameHashTest {
+
+    private static final int DEPTH = 3;
+
+    private static long computeHash(GameState state) {
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        return new GameBitboardState(snapshot).getHash();
+    }
+
+    private static void checkMoves(GameBitboardState state, int depth) {
+        Assertions.assertEquals(computeHash(state), state.getHash());
+        if (depth == 0) return;
+        GameMoveList moves = new GameMoveList();
+        state.generateMoves(moves);
+        long before = state.getHash();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            long undo = state.makeMove(move);
+            Assertions.assertNotEquals(before, state.getHash());
+            checkMoves(state, depth - 1);
+            state.unmakeMove(move, undo);
+            Assertions.assertEquals(before, state.getHash());
+        }
+    }
+
+    @TestFactory
+    public Collection<DynamicTest> testIfHashIsUpdatedByMoves() {
+        return Stream.of(
+                new StringState(
+                        """
+                        -- Bp -- -- -- Bp -- Bp
+                        -- -- Wp -- Wp -- -- --
+                        -- -- -- Bp -- Bp -- --
+                        -- -- -- -- -- -- -- --
+                        -- Wp -- Wp -- Bp -- Wp
+                        -- -- -- -- -- -- -- --
+                        -- -- -- Bp -- Bp -- Bp
+                        Wp -- -- -- -- -- -- --
+                        """
+                ),
+                new StringState(
+                        """
+                        -- -- -- -- -- -- -- --
+                        Bp -- -- -- Bp -- -- --
+                        -- -- -- Wp -- -- -- --
+                        -- -- -- -- -- -- Bp --
+                        -- -- -- -- -- Wp -- --
+                        -- -- -- -- Bp -- Bq --
+                        -- Wq -- Bp -- -- -- Wp
+                        -- -- -- -- -- -- -- --
+                        """
+                )
+        ).flatMap(state -> Stream.of(GamePlayerType.White, GamePlayerType.Black)
+                .map(player -> DynamicTest.dynamicTest(
+                        "Hash of the moves of " + player,
+                        () -> checkMoves(new GameBitboardState(state.getState(), player), DEPTH)
+                ))).toList();
+    }
+
+    @Test
+    public void testIfProcessUpdatesHash() {
+        var state = new GameBitboardState();
+        GameMoveList moves = new GameMoveList();
+        for (int i = 0; i < 20 && state.generateMoves(moves) > 0; i++) {
+            long move = moves.get(moves.size() / 2);
+            var result = state.process(GameMove.fromPosition(move), GameMove.toPosition(move));
+            Assertions.assertTrue(result.isCorrect());
+            Assertions.assertEquals(computeHash(state), state.getHash());
+        }
+    }
+
+    @Test
+    public void testIfTranspositionsHaveEqualHash() {
+        var first = new GameBitboardState();
+        var second = new GameBitboardState();
+        first.process(new GamePosition(5, 0), new GamePosition(4, 1));
+        first.process(new GamePosition(2, 1), new GamePosition(3, 0));
+        first.process(new GamePosition(5, 2), new GamePosition(4, 3));
+        second.process(new GamePosition(5, 2), new GamePosition(4, 3));
+        second.process(new GamePosition(2, 1), new GamePosition(3, 0));
+        second.process(new GamePosition(5, 0), new GamePosition(4, 1));
+        Assertions.assertEquals(first.getHash(), second.getHash());
+        Assertions.assertNotEquals(new GameBitboardState().getHash(), first.getHash());
+    }
+
+}
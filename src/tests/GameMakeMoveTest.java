@@ -0,0 +1,108 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Dedicated to testing the reversible moves. Every generated move has to be the one played
+ * by processing its tiles, playing it with makeMove has to give the same board, and taking
+ * it back has to restore the board exactly, including captured queens, transformed pawns
+ * and the current player.
+ */
+public class GameMakeMoveTest {
+
+    private static final int DEPTH = 3;
+
+    private static GamePawnType[] getTiles(GameState state) {
+        GamePawnType[] tiles = new GamePawnType[64];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = state.get(GamePosition.of(i));
+        }
+        return tiles;
+    }
+
+    private static void assertSameBoard(GamePawnType[] expected, GameState state) {
+        GamePawnType[] tiles = getTiles(state);
+        for (int i = 0; i < tiles.length; i++) {
+            Assertions.assertEquals(expected[i], tiles[i]);
+        }
+    }
+
+    static void checkMoves(GameState state, int depth) {
+        if (depth == 0) return;
+        GameMoveList moves = new GameMoveList();
+        state.generateMoves(moves);
+        GamePawnType[] before = getTiles(state);
+        GamePlayerType player = state.getCurrentPlayer();
+        for (int i = 0; i < moves.size(); i++) {
+            long move = moves.get(i);
+            long undo = state.makeMove(move);
+
+            GameState processed = GameState.create(GameState.Backend.Bitboard,
+                    new GameState.Initializer(before, player));
+            long result = processed.processPacked(GameMove.fromPosition(move), GameMove.toPosition(move));
+            Assertions.assertTrue(GameMoveResult.isCorrect(result));
+            Assertions.assertEquals(move, GameMoveResult.move(result), GameMove.toString(move));
+            assertSameBoard(getTiles(processed), state);
+            Assertions.assertEquals(processed.getCurrentPlayer(), state.getCurrentPlayer());
+
+            checkMoves(state, depth - 1);
+            state.unmakeMove(move, undo);
+            assertSameBoard(before, state);
+            Assertions.assertEquals(player, state.getCurrentPlayer());
+        }
+    }
+
+    @TestFactory
+    public Collection<DynamicTest> testMakeAndUnmakeRestoreTheBoard() {
+        return Stream.of(
+                new StringState(
+                        """
+                        -- Bp -- Bp -- Bp -- Bp
+                        Bp -- Bp -- Bp -- Bp --
+                        -- Bp -- Bp -- Bp -- Bp
+                        -- -- -- -- -- -- -- --
+                        -- -- -- -- -- -- -- --
+                        Wp -- Wp -- Wp -- Wp --
+                        -- Wp -- Wp -- Wp -- Wp
+                        Wp -- Wp -- Wp -- Wp --
+                        """
+                ),
+                new StringState(
+                        """
+                        -- Bp -- -- -- Bp -- Bp
+                        -- -- Wp -- Wp -- -- --
+                        -- -- -- Bp -- Bp -- --
+                        -- -- -- -- -- -- -- --
+                        -- Wp -- Wp -- Bp -- Wp
+                        -- -- -- -- -- -- -- --
+                        -- -- -- Bp -- Bp -- Bp
+                        Wp -- -- -- -- -- -- --
+                        """
+                ),
+                new StringState(
+                        """
+                        -- -- -- -- -- -- -- --
+                        Bp -- -- -- Bp -- -- --
+                        -- -- -- Wp -- -- -- --
+                        -- -- -- -- -- -- Bp --
+                        -- -- -- -- -- Wp -- --
+                        -- -- -- -- Bp -- Bq --
+                        -- Wq -- Bp -- -- -- Wp
+                        -- -- -- -- -- -- -- --
+                        """
+                )
+        ).flatMap(state -> Stream.of(GamePlayerType.White, GamePlayerType.Black)
+                .map(player -> DynamicTest.dynamicTest(
+                        "Make and unmake moves of " + player,
+                        () -> checkMoves(GameState.create(GameState.Backend.Bitboard,
+                                new GameState.Initializer(state.getState(), player)), DEPTH)
+                ))).toList();
+    }
+
+}
@@ -0,0 +1,130 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Dedicated to testing the move generator. Every generated move has to be accepted by
+ * GameState.process and every move accepted by process has to be generated, exactly once
+ * for its tiles and with the pawns captured by process.
+ */
+public class GameMoveGeneratorTest {
+
+    private static final StringState[] STATES = new StringState[]{
+            new StringState(
+                    """
+                    -- Bp -- Bp -- Bq -- Bp
+                    Bp -- Bp -- Bp -- Bp --
+                    -- -- -- Bp -- -- -- --
+                    -- -- Bp -- Bp -- Bp --
+                    -- -- -- Wp -- -- -- Wp
+                    Wp -- -- -- Wp -- -- --
+                    -- Wq -- -- -- Wq -- Wp
+                    Wp -- Wp -- Wp -- Wp --
+                    """
+            ),
+            new StringState(
+                    """
+                    -- Bp -- -- -- Bp -- Bp
+                    -- -- Wp -- Wp -- -- --
+                    -- -- -- Bp -- Bp -- --
+                    -- -- -- -- -- -- -- --
+                    -- Wp -- Wp -- Bp -- Wp
+                    -- -- -- -- -- -- -- --
+                    -- -- -- Bp -- Bp -- Bp
+                    Wp -- -- -- -- -- -- --
+                    """
+            ),
+            new StringState(
+                    """
+                    -- Bp -- -- -- -- -- --
+                    Bp -- Wp -- Bp -- Bq --
+                    -- -- -- Bp -- -- -- --
+                    Wp -- Bp -- Wq -- Bp --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- Bp -- -- --
+                    -- Bp -- Bp -- -- -- Wp
+                    -- -- -- -- -- -- -- --
+                    """
+            ),
+            new StringState(
+                    """
+                    -- -- -- -- -- -- -- Wp
+                    -- -- -- -- -- -- Wp --
+                    -- Wp -- -- -- -- -- --
+                    -- -- Wq -- -- -- Wp --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- Wp --
+                    -- -- -- -- -- Bq -- --
+                    -- -- -- -- -- -- -- --
+                    """
+            ),
+    };
+
+    private record Move(GamePosition from, GamePosition to) {}
+
+    @Test
+    public void testMovesAtTheBeginning() {
+        GameState state = GameState.create(GameState.Backend.Bitboard);
+        GameMoveList moves = new GameMoveList();
+        Assertions.assertEquals(7, state.generateMoves(moves));
+        for (int i = 0; i < moves.size(); i++) {
+            Assertions.assertFalse(GameMove.isCapture(moves.get(i)));
+            Assertions.assertEquals(5, GameMove.fromPosition(moves.get(i)).row());
+            Assertions.assertEquals(4, GameMove.toPosition(moves.get(i)).row());
+        }
+    }
+
+    @TestFactory
+    public Collection<DynamicTest> testGeneratedMovesMatchProcess() {
+        return Stream.of(STATES).flatMap(state -> Stream.of(GamePlayerType.White, GamePlayerType.Black)
+                .map(player -> DynamicTest.dynamicTest(
+                        "Generated moves of " + player,
+                        () -> {
+                            var initializer = new GameState.Initializer(state.getState(), player);
+                            GameMoveList moves = new GameMoveList();
+                            GameState.create(GameState.Backend.Bitboard, initializer).generateMoves(moves);
+
+                            Map<Move, Integer> captured = new HashMap<>();
+                            for (int i = 0; i < moves.size(); i++) {
+                                long move = moves.get(i);
+                                Assertions.assertNull(captured.put(
+                                        new Move(GameMove.fromPosition(move), GameMove.toPosition(move)),
+                                        GameMove.capturedAmount(move)), GameMove.toString(move));
+                            }
+
+                            for (int i = 0; i < 64 * 64; i++) {
+                                var move = new Move(new GamePosition(i / 512, i / 64 % 8),
+                                        new GamePosition(i % 64 / 8, i % 8));
+                                var result = GameState.create(GameState.Backend.Bitboard, initializer)
+                                        .process(move.from(), move.to());
+                                Assertions.assertEquals(captured.containsKey(move), result.isCorrect(),
+                                        move.toString());
+                                if (result.isCorrect()) {
+                                    Assertions.assertEquals((int) captured.get(move), result.takenPawns().length);
+                                }
+                            }
+                        }
+                ))).toList();
+    }
+
+    @Test
+    public void testCapturedPawnsEncoding() {
+        for (int from = 0; from < 64; from++) {
+            for (int over = 0; over < 64; over++) {
+                if ((from / 8 + from + over / 8 + over) % 2 != 0) continue;
+                long move = GameMove.encode(from, over, false, 1L << over);
+                Assertions.assertEquals(1L << over, GameMove.captured(move));
+                Assertions.assertEquals(from, GameMove.from(move));
+                Assertions.assertEquals(over, GameMove.to(move));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Dedicated to testing the opening book. Moves found in the mapped book have to have
+ * the statistics counted while playing the games, sorted from the most played one.
+ */
+public class GameOpeningBookTest {
+
+    private static final int GAMES = 300;
+    private static final int BOOK_MOVES = 4;
+
+    /**
+     * Plays the random games into the log, counting the games of each first move.
+     */
+    private static byte[] playRandomGames(Map<String, Integer> expected) throws IOException {
+        var state = new GameBitboardState();
+        var random = new SplittableRandom(3);
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new GameRecordWriter(bytes)) {
+            for (int game = 0; game < GAMES; game++) {
+                RandomGame played = RandomGame.play(state, random, 100);
+                played.write(writer);
+                played.reset(state);
+                for (int i = 0; i < Math.min(BOOK_MOVES, played.moves().length); i++) {
+                    expected.merge(state.getHash() + ":" + played.moves()[i], 1, Integer::sum);
+                    played.process(state, i);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testIfMovesOfTheGamesAreFound() throws IOException {
+        Map<String, Integer> expected = new HashMap<>();
+        byte[] log = playRandomGames(expected);
+        Path path = Files.createTempFile("openings", ".book");
+        try {
+            var builder = new GameOpeningBookBuilder(BOOK_MOVES);
+            try (var reader = new GameRecordReader(new ByteArrayInputStream(log))) {
+                Assertions.assertEquals(GAMES, builder.addGames(reader));
+            }
+            Assertions.assertEquals(expected.size(), builder.write(path, 1));
+
+            try (var book = new GameOpeningBook(path)) {
+                Assertions.assertEquals(expected.size(), book.size());
+                for (int entry = 0; entry < book.size(); entry++) {
+                    Assertions.assertEquals((int) expected.get(book.getHash(entry) + ":" + book.getMove(entry)),
+                            book.getGames(entry));
+                    Assertions.assertTrue(book.getWins(entry) + book.getDraws(entry) <= book.getGames(entry));
+                    if (entry > 0 && book.getHash(entry - 1) == book.getHash(entry)) {
+                        Assertions.assertTrue(book.getGames(entry - 1) >= book.getGames(entry));
+                    }
+                }
+
+                var state = new GameBitboardState();
+                int first = book.find(state.getHash());
+                Assertions.assertTrue(first >= 0);
+                int games = 0;
+                for (int entry = first; entry < first + book.count(first); entry++) {
+                    games += book.getGames(entry);
+                }
+                Assertions.assertEquals(GAMES, games);
+                Assertions.assertEquals(book.getMove(first), book.bestMove(state));
+                Assertions.assertEquals(-1, book.find(state.getHash() + 1));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfRareMovesAreLeftOut() throws IOException {
+        Map<String, Integer> expected = new HashMap<>();
+        byte[] log = playRandomGames(expected);
+        Path path = Files.createTempFile("openings", ".book");
+        try {
+            var builder = new GameOpeningBookBuilder(BOOK_MOVES);
+            try (var reader = new GameRecordReader(new ByteArrayInputStream(log))) {
+                builder.addGames(reader);
+            }
+            long frequent = expected.values().stream().filter(games -> games >= 5).count();
+            Assertions.assertEquals(frequent, builder.write(path, 5));
+            try (var book = new GameOpeningBook(path)) {
+                for (int entry = 0; entry < book.size(); entry++) {
+                    Assertions.assertTrue(book.getGames(entry) >= 5);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfOtherFilesAreRejected() throws IOException {
+        Path path = Files.createTempFile("openings", ".book");
+        try {
+            Files.write(path, new byte[64]);
+            Assertions.assertThrows(IOException.class, () -> new GameOpeningBook(path));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares the perft node counts with the reference table. Counts were taken from the move
+ * generator checked against GameState.process, so any change in them is a change of the rules
+ * and has to be investigated with the divide mode (java main.GamePerft [depth] divide).
+ */
+public class GamePerftTest {
+
+    /**
+     * Position, player to move and the node counts from depth 1 onward.
+     */
+    private record Reference(StringState state, GamePlayerType player, long[] nodes) {}
+
+    private static final Reference[] REFERENCES = new Reference[]{
+            new Reference(
+                    new StringState(
+                            """
+                            -- Bp -- Bp -- Bp -- Bp
+                            Bp -- Bp -- Bp -- Bp --
+                            -- Bp -- Bp -- Bp -- Bp
+                            -- -- -- -- -- -- -- --
+                            -- -- -- -- -- -- -- --
+                            Wp -- Wp -- Wp -- Wp --
+                            -- Wp -- Wp -- Wp -- Wp
+                            Wp -- Wp -- Wp -- Wp --
+                            """
+                    ),
+                    GamePlayerType.White,
+                    new long[]{7L, 49L, 379L, 2900L, 24029L, 197410L}
+            ),
+            new Reference(
+                    new StringState(
+                            """
+                            -- Bp -- -- -- Bp -- Bp
+                            -- -- Wp -- Wp -- -- --
+                            -- -- -- Bp -- Bp -- --
+                            -- -- -- -- -- -- -- --
+                            -- Wp -- Wp -- Bp -- Wp
+                            -- -- -- -- -- -- -- --
+                            -- -- -- Bp -- Bp -- Bp
+                            Wp -- -- -- -- -- -- --
+                            """
+                    ),
+                    GamePlayerType.White,
+                    new long[]{18L, 244L, 2685L, 34937L, 343802L}
+            ),
+            new Reference(
+                    new StringState(
+                            """
+                            -- Bp -- -- -- -- -- --
+                            Bp -- Wp -- Bp -- Bq --
+                            -- -- -- Bp -- -- -- --
+                            Wp -- Bp -- Wq -- Bp --
+                            -- -- -- -- -- -- -- --
+                            -- -- -- -- Bp -- -- --
+                            -- Bp -- Bp -- -- -- Wp
+                            -- -- -- -- -- -- -- --
+                            """
+                    ),
+                    GamePlayerType.White,
+                    new long[]{10L, 171L, 1702L, 27512L, 275767L}
+            ),
+            new Reference(
+                    new StringState(
+                            """
+                            -- -- -- -- -- -- -- Wp
+                            -- -- -- -- -- -- Wp --
+                            -- Wp -- -- -- -- -- --
+                            -- -- Wq -- -- -- Wp --
+                            -- -- -- -- -- -- -- --
+                            -- -- -- -- -- -- Wp --
+                            -- -- -- -- -- Bq -- --
+                            -- -- -- -- -- -- -- --
+                            """
+                    ),
+                    GamePlayerType.Black,
+                    new long[]{6L, 85L, 540L, 7208L, 50895L}
+            ),
+    };
+
+    private static GameState createState(Reference reference) {
+        return GameState.create(GameState.Backend.Bitboard,
+                new GameState.Initializer(reference.state().getState(), reference.player()));
+    }
+
+    @TestFactory
+    public Collection<DynamicTest> testNodeCounts() {
+        return IntStream.range(0, REFERENCES.length).boxed()
+                .flatMap(i -> IntStream.rangeClosed(1, REFERENCES[i].nodes().length)
+                        .mapToObj(depth -> DynamicTest.dynamicTest(
+                                "Perft of position " + i + " to depth " + depth,
+                                () -> {
+                                    Reference reference = REFERENCES[i];
+                                    GamePerft perft = new GamePerft(createState(reference), depth);
+                                    Assertions.assertEquals(reference.nodes()[depth - 1], perft.perft(depth));
+                                }
+                        )))
+                .toList();
+    }
+
+    @Test
+    public void testDivideSumsUpToPerft() {
+        Stream.of(REFERENCES).forEach(reference -> {
+            GamePerft perft = new GamePerft(createState(reference), 4);
+            GameMoveList moves = new GameMoveList();
+            long[] nodes = perft.divide(4, moves);
+            Assertions.assertEquals(moves.size(), nodes.length);
+            Assertions.assertEquals(reference.nodes()[3], Arrays.stream(nodes).sum());
+        });
+    }
+
+    @Test
+    public void testIfPositionFileIsRead() throws IOException {
+        Path path = Files.createTempFile("position", ".txt");
+        try {
+            Files.writeString(path, """
+                    -- -- -- -- -- -- -- Wp
+                    -- -- -- -- -- -- Wp --
+                    -- Wp -- -- -- -- -- --
+                    -- -- Wq -- -- -- Wp --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- Wp --
+                    -- -- -- -- -- Bq -- --
+                    -- -- -- -- -- -- -- --
+                    Black
+                    """);
+            GameState.Initializer position = GamePerft.readPosition(path);
+            Reference reference = REFERENCES[3];
+            Assertions.assertArrayEquals(reference.state().getState(), position.state());
+            Assertions.assertEquals(reference.player(), position.player());
+            GamePerft perft = new GamePerft(GameState.create(GameState.Backend.Bitboard, position), 3);
+            Assertions.assertEquals(reference.nodes()[2], perft.perft(3));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+}
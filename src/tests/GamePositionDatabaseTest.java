@@ -0,0 +1,204 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Dedicated to testing the memory-mapped position database. Statistics of the positions
+ * have to match the ones counted on the heap, also after reopening the file.
+ */
+public class GamePositionDatabaseTest {
+
+    private static final int GAMES = 100;
+
+    private static String key(GameState state) {
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(snapshot);
+        return Arrays.toString(snapshot);
+    }
+
+    private static void count(Map<String, int[]> expected, GameState state, GamePlayerType winner) {
+        int[] stats = expected.computeIfAbsent(key(state), k -> new int[4]);
+        stats[0]++;
+        stats[1 + winner.ordinal()]++;
+    }
+
+    private static void assertStats(int[] stats, GamePositionDatabase database, long record) {
+        Assertions.assertEquals(stats[0], database.getGames(record));
+        Assertions.assertEquals(stats[1 + GamePlayerType.White.ordinal()], database.getWhiteWins(record));
+        Assertions.assertEquals(stats[1 + GamePlayerType.Black.ordinal()], database.getBlackWins(record));
+        Assertions.assertEquals(stats[1 + GamePlayerType.None.ordinal()], database.getDraws(record));
+    }
+
+    /**
+     * Plays the random games, writing them to the log and counting their positions.
+     */
+    private static byte[] playRandomGames(Map<String, int[]> expected) throws IOException {
+        var state = new GameBitboardState();
+        var random = new SplittableRandom(11);
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new GameRecordWriter(bytes)) {
+            for (int game = 0; game < GAMES; game++) {
+                RandomGame played = RandomGame.play(state, random, 100);
+                played.write(writer);
+                played.reset(state);
+                // Repeated positions are counted once per game
+                Set<String> counted = new HashSet<>();
+                if (counted.add(key(state))) count(expected, state, played.winner());
+                for (int i = 0; i < played.moves().length; i++) {
+                    played.process(state, i);
+                    if (counted.add(key(state))) count(expected, state, played.winner());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testIfPositionsOfTheGamesAreFound() throws IOException {
+        Map<String, int[]> expected = new HashMap<>();
+        byte[] log = playRandomGames(expected);
+        Path path = Files.createTempFile("positions", ".db");
+        try {
+            try (var database = GamePositionDatabase.create(path, expected.size() * 2L);
+                 var reader = new GameRecordReader(new ByteArrayInputStream(log))) {
+                Assertions.assertEquals(GAMES, database.addGames(reader, Integer.MAX_VALUE));
+                Assertions.assertEquals(expected.size(), database.size());
+            }
+            try (var database = GamePositionDatabase.open(path, false)) {
+                Assertions.assertEquals(expected.size(), database.size());
+                var state = new GameBitboardState();
+                Assertions.assertEquals(GAMES, database.getGames(database.find(state)));
+                int found = 0;
+                for (long record = 0; record < database.capacity(); record++) {
+                    if (database.getGames(record) == 0) continue;
+                    database.load(record, state);
+                    Assertions.assertEquals(record, database.find(state));
+                    assertStats(expected.get(key(state)), database, record);
+                    found++;
+                }
+                Assertions.assertEquals(expected.size(), found);
+                Assertions.assertThrows(RuntimeException.class, () -> database.add(state, GamePlayerType.None));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfRepeatedPositionIsCountedOnce() throws IOException {
+        GamePawnType[] start = new StringState(
+                """
+                -- -- -- -- -- -- -- Bq
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                Wq -- -- -- -- -- -- --
+                """
+        ).getState();
+        // Both queens step forth and back, so the start occurs three times
+        short[] moves = new short[]{(short) (56 | 49 << 6), (short) (7 | 14 << 6),
+                (short) (49 | 56 << 6), (short) (14 | 7 << 6),
+                (short) (56 | 49 << 6), (short) (7 | 14 << 6),
+                (short) (49 | 56 << 6), (short) (14 | 7 << 6)};
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new GameRecordWriter(bytes)) {
+            writer.write(start, GamePlayerType.White, GamePlayerType.None, moves, 0, moves.length);
+        }
+        Path path = Files.createTempFile("positions", ".db");
+        try (var database = GamePositionDatabase.create(path, 16);
+             var reader = new GameRecordReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertEquals(1, database.addGames(reader, Integer.MAX_VALUE));
+            Assertions.assertEquals(4, database.size());
+            long record = database.find(new GameBitboardState(start, GamePlayerType.White));
+            Assertions.assertEquals(1, database.getGames(record));
+            Assertions.assertEquals(1, database.getDraws(record));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfMissingPositionIsNotFound() throws IOException {
+        Path path = Files.createTempFile("positions", ".db");
+        try (var database = GamePositionDatabase.create(path, 16)) {
+            var state = new GameBitboardState(new StringState(
+                    """
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- Wp -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- Bq -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    """
+            ).getState(), GamePlayerType.White);
+            Assertions.assertEquals(-1, database.find(state));
+            long record = database.add(state, GamePlayerType.Black);
+            Assertions.assertEquals(record, database.find(state));
+            Assertions.assertEquals(1, database.getBlackWins(record));
+            // Same board with the other player to move is another position
+            state.init(new StringState(
+                    """
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- Wp -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- Bq -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    -- -- -- -- -- -- -- --
+                    """
+            ).getState(), GamePlayerType.Black);
+            Assertions.assertEquals(-1, database.find(state));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfFullDatabaseIsReported() throws IOException {
+        Path path = Files.createTempFile("positions", ".db");
+        try (var database = GamePositionDatabase.create(path, 4)) {
+            var state = new GameBitboardState();
+            var list = new GameMoveList();
+            for (int i = 0; i < database.capacity(); i++) {
+                database.add(state, GamePlayerType.None);
+                state.generateMoves(list);
+                state.process(GameMove.fromPosition(list.get(0)), GameMove.toPosition(list.get(0)));
+            }
+            Assertions.assertThrows(RuntimeException.class, () -> database.add(state, GamePlayerType.None));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfOtherFilesAreRejected() throws IOException {
+        Path path = Files.createTempFile("positions", ".db");
+        try {
+            Files.write(path, new byte[128]);
+            Assertions.assertThrows(IOException.class, () -> GamePositionDatabase.open(path, false));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+}
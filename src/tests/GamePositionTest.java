@@ -0,0 +1,30 @@
+package tests;
+
+import main.GamePosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dedicated to testing the shared positions of the tiles and their squares.
+ */
+public class GamePositionTest {
+
+    @Test
+    public void testIfPositionsOnBoardAreShared() {
+        for (int i = 0; i < 64; i++) {
+            var position = GamePosition.of(i / 8, i % 8);
+            Assertions.assertSame(position, GamePosition.of(i));
+            Assertions.assertEquals(i, position.square());
+            Assertions.assertEquals(new GamePosition(i / 8, i % 8), position);
+        }
+    }
+
+    @Test
+    public void testIfPositionsOutsideBoardAreCreated() {
+        var position = GamePosition.of(8, -1);
+        Assertions.assertEquals(8, position.row());
+        Assertions.assertEquals(-1, position.col());
+        Assertions.assertFalse(GamePosition.isOnBoard(position.row(), position.col()));
+    }
+
+}
@@ -0,0 +1,98 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Dedicated to testing the binary game log. Games written by GameRecordWriter have to be
+ * read back unchanged and replaying them has to give the same boards as processing
+ * the moves one by one.
+ */
+public class GameRecordTest {
+
+    private static final int GAMES = 200;
+
+    @Test
+    public void testIfGamesAreReplayedFromTheLog() throws IOException {
+        var state = GameState.create(GameState.Backend.Bitboard);
+        var random = new SplittableRandom(5);
+        var custom = new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                Bp -- -- -- Bp -- -- --
+                -- -- -- Wp -- -- -- --
+                -- -- -- -- -- -- Bp --
+                -- -- -- -- -- Wp -- --
+                -- -- -- -- Bp -- Bq --
+                -- Wq -- Bp -- -- -- Wp
+                -- -- -- -- -- -- -- --
+                """
+        ).getState();
+        RandomGame[] games = new RandomGame[GAMES];
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new GameRecordWriter(bytes)) {
+            for (int i = 0; i < GAMES; i++) {
+                games[i] = i % 10 == 0 ? RandomGame.play(state, random, 300, custom, GamePlayerType.Black)
+                        : RandomGame.play(state, random, 300);
+                games[i].write(writer);
+            }
+        }
+
+        var replayed = GameState.create(GameState.Backend.Bitboard);
+        long[] results = new long[300];
+        byte[] end = new byte[GameState.SNAPSHOT_SIZE];
+        try (var reader = new GameRecordReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            for (RandomGame game : games) {
+                Assertions.assertTrue(reader.next());
+                Assertions.assertEquals(game.start() != null, reader.isCustomStart());
+                Assertions.assertEquals(game.player(), reader.getPlayer());
+                Assertions.assertEquals(game.winner(), reader.getWinner());
+                Assertions.assertArrayEquals(game.moves(), Arrays.copyOf(reader.getMoves(), reader.getLength()));
+                Assertions.assertEquals(reader.getLength(), reader.replay(replayed, results));
+                replayed.snapshot(end);
+                Assertions.assertArrayEquals(game.end(), end);
+            }
+            Assertions.assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testIfGamesAreAppendedToTheFile() throws IOException {
+        var path = Files.createTempFile("games", ".log");
+        try {
+            Files.delete(path);
+            short[] moves = new short[]{(short) (42 | 33 << 6), (short) (21 | 28 << 6)};
+            try (var writer = new GameRecordWriter(path)) {
+                writer.write(GamePlayerType.None, moves, 0, 1);
+            }
+            try (var writer = new GameRecordWriter(path)) {
+                writer.write(GamePlayerType.None, moves, 0, 2);
+            }
+            try (var reader = new GameRecordReader(path)) {
+                Assertions.assertTrue(reader.next());
+                Assertions.assertEquals(1, reader.getLength());
+                Assertions.assertTrue(reader.next());
+                Assertions.assertEquals(2, reader.getLength());
+                Assertions.assertEquals(moves[1], reader.getMoves()[1]);
+                Assertions.assertFalse(reader.next());
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testIfOtherFilesAreRejected() {
+        Assertions.assertThrows(IOException.class,
+                () -> new GameRecordReader(new ByteArrayInputStream(new byte[]{'P', 'K', 3, 4, 1})));
+    }
+
+}
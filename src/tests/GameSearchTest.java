@@ -0,0 +1,157 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dedicated to testing the computer player's search. Covers finding the winning capture,
+ * respecting the time budget, leaving the searched state untouched, reusing
+ * the transposition table between the searches, scoring the blocked player as lost and
+ * searching on several threads.
+ */
+public class GameSearchTest {
+
+    @Test
+    public void testIfWinningCaptureIsFound() {
+        var descriptor = new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- Bp -- --
+                -- -- Bp -- -- -- -- --
+                -- Wp -- -- -- -- -- Wp
+                -- -- -- -- -- -- -- --
+                -- -- -- Wp -- -- -- --
+                -- -- -- -- -- -- Wp --
+                """
+        );
+        var state = new GameBitboardState(descriptor.getState(), GamePlayerType.White);
+        GameSearchResult result = new GameSearch(state).search(1000, 6);
+        Assertions.assertTrue(result.hasMove());
+        Assertions.assertTrue(result.score() >= GameSearch.WIN - GameSearch.MAX_PLY);
+        var processed = state.process(GameMove.fromPosition(result.move()), GameMove.toPosition(result.move()));
+        Assertions.assertTrue(processed.isCorrect());
+    }
+
+    @Test
+    public void testIfNoMoveIsReportedWhenPlayerIsBlocked() {
+        var descriptor = new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                Bp -- -- -- -- -- -- --
+                """
+        );
+        var state = new GameBitboardState(descriptor.getState(), GamePlayerType.Black);
+        Assertions.assertFalse(new GameSearch(state).search(1000, 6).hasMove());
+    }
+
+    @Test
+    public void testIfSearchRespectsTimeAndRestoresTheState() {
+        var state = new GameBitboardState();
+        byte[] before = new byte[GameState.SNAPSHOT_SIZE];
+        byte[] after = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(before);
+        long start = System.nanoTime();
+        GameSearchResult result = new GameSearch(state).search(200, GameSearch.MAX_PLY);
+        Assertions.assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        Assertions.assertTrue(result.hasMove());
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertTrue(result.nodes() > 0);
+        state.snapshot(after);
+        Assertions.assertArrayEquals(before, after);
+    }
+
+    @Test
+    public void testIfSharedTableKeepsTheResult() {
+        var state = new GameBitboardState();
+        var table = new GameTranspositionTable(GameSearch.DEFAULT_TABLE_SIZE);
+        GameSearchResult first = new GameSearch(state, table, new GameHistory()).search(10_000, 6);
+        GameSearchResult second = new GameSearch(state, table, new GameHistory()).search(10_000, 6);
+        Assertions.assertEquals(6, first.depth());
+        Assertions.assertEquals(first.score(), second.score());
+        Assertions.assertTrue(second.nodes() < first.nodes());
+    }
+
+    @Test
+    public void testIfParallelSearchFindsWinningCapture() {
+        var descriptor = new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- Bp -- --
+                -- -- Bp -- -- -- -- --
+                -- Wp -- -- -- -- -- Wp
+                -- -- -- -- -- -- -- --
+                -- -- -- Wp -- -- -- --
+                -- -- -- -- -- -- Wp --
+                """
+        );
+        var state = new GameBitboardState(descriptor.getState(), GamePlayerType.White);
+        byte[] before = new byte[GameState.SNAPSHOT_SIZE];
+        byte[] after = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(before);
+        var search = new GameParallelSearch(state, new GameTranspositionTable(GameSearch.DEFAULT_TABLE_SIZE),
+                new GameHistory(), 4);
+        GameSearchResult result = search.search(1000, 6);
+        Assertions.assertTrue(result.hasMove());
+        Assertions.assertTrue(result.score() >= GameSearch.WIN - GameSearch.MAX_PLY);
+        state.snapshot(after);
+        Assertions.assertArrayEquals(before, after);
+        Assertions.assertTrue(state.process(GameMove.fromPosition(result.move()),
+                GameMove.toPosition(result.move())).isCorrect());
+    }
+
+    @Test
+    public void testIfBlockedPlayerLosesAtTheHorizon() {
+        // Any move of the white queen leaves the black pawns without a move
+        var descriptor = new StringState(
+                """
+                -- Wq -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                Bp -- Bp -- Bp -- Bp --
+                -- Bp -- Bp -- Bp -- Bp
+                Wp -- Wp -- Wp -- Wp --
+                """
+        );
+        var state = new GameBitboardState(descriptor.getState(), GamePlayerType.White);
+        GameSearchResult result = new GameSearch(state).search(10_000, 1);
+        Assertions.assertEquals(GameSearch.WIN - 1, result.score());
+    }
+
+    @Test
+    public void testIfParallelSearchEndsWithTheMainThread() {
+        var descriptor = new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- Bp -- -- --
+                -- -- -- -- -- Wp -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                """
+        );
+        var state = new GameBitboardState(descriptor.getState(), GamePlayerType.White);
+        var search = new GameParallelSearch(state, new GameTranspositionTable(GameSearch.DEFAULT_TABLE_SIZE),
+                new GameHistory(), 4);
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            // Capture of the last pawn ends the main thread in the first iteration
+            GameSearchResult result = search.search(60_000, GameSearch.MAX_PLY);
+            Assertions.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+            Assertions.assertEquals(GameSearch.WIN - 1, result.score());
+        }
+    }
+
+}
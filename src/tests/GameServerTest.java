@@ -0,0 +1,71 @@
+package tests;
+
+import main.GameServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dedicated to testing the line protocol of the game server. Covers selecting and processing
+ * the moves, reading the board, the errors and the independence of the sessions.
+ */
+public class GameServerTest {
+
+    private static class Client implements Closeable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+        }
+
+        String send(String command) throws IOException {
+            writer.write(command);
+            writer.newLine();
+            writer.flush();
+            return reader.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testIfMovesArePlayedOverTheProtocol() throws IOException {
+        try (var server = new GameServer(0); var client = new Client(server.getPort())) {
+            Assertions.assertEquals("ok", client.send("new"));
+            Assertions.assertEquals("board .b.b.b.bb.b.b.b..b.b.b.b................w.w.w.w..w.w.w.ww.w.w.w. White",
+                    client.send("snapshot"));
+            Assertions.assertTrue(client.send("moves").contains(" 40-33"));
+            Assertions.assertEquals("selected 5 0", client.send("select 5 0"));
+            Assertions.assertEquals("ok 0 0 None", client.send("select 4 1"));
+            Assertions.assertTrue(client.send("snapshot").endsWith(" Black"));
+            Assertions.assertEquals("error It's not your turn.", client.send("process 4 1 3 2"));
+            Assertions.assertTrue(client.send("hello").startsWith("error Unknown command"));
+            Assertions.assertTrue(client.send("process 4").startsWith("error Wrong arguments"));
+            Assertions.assertEquals("bye", client.send("quit"));
+        }
+    }
+
+    @Test
+    public void testIfSessionsAreIndependent() throws IOException {
+        try (var server = new GameServer(0);
+             var first = new Client(server.getPort());
+             var second = new Client(server.getPort())) {
+            Assertions.assertEquals("ok 0 0 None", first.send("process 5 2 4 3"));
+            Assertions.assertTrue(first.send("snapshot").endsWith(" Black"));
+            Assertions.assertTrue(second.send("snapshot").endsWith(" White"));
+            Assertions.assertEquals("ok 0 0 None", second.send("process 5 2 4 3"));
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package tests;
+
+import main.GameSimulation;
+import main.GameSimulationResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dedicated to testing the headless self-play. Generated moves have to be accepted by
+ * the validation, every game has to end with a result and the statistics can't depend
+ * on the amount of threads.
+ */
+public class GameSimulationTest {
+
+    @Test
+    public void testIfRandomGamesAreCompleted() {
+        GameSimulationResult result = new GameSimulation(GameSimulation.Player.Random,
+                GameSimulation.Player.Random, 2, 1, 7).run(200);
+        Assertions.assertEquals(200, result.games());
+        Assertions.assertEquals(200, result.whiteWins() + result.blackWins() + result.draws());
+        Assertions.assertTrue(result.averageLength() > 0);
+        Assertions.assertTrue(result.averageLength() <= GameSimulation.MAX_GAME_LENGTH);
+    }
+
+    @Test
+    public void testIfResultsDontDependOnThreads() {
+        var single = new GameSimulation(GameSimulation.Player.Greedy,
+                GameSimulation.Player.Random, 1, 1, 11).run(60);
+        var parallel = new GameSimulation(GameSimulation.Player.Greedy,
+                GameSimulation.Player.Random, 3, 1, 11).run(60);
+        Assertions.assertEquals(single.whiteWins(), parallel.whiteWins());
+        Assertions.assertEquals(single.blackWins(), parallel.blackWins());
+        Assertions.assertEquals(single.moves(), parallel.moves());
+    }
+
+    @Test
+    public void testIfSearchBeatsRandomPlayer() {
+        GameSimulationResult result = new GameSimulation(GameSimulation.Player.Search,
+                GameSimulation.Player.Random, 2, 3, 3).run(10);
+        Assertions.assertTrue(result.whiteWins() > result.blackWins());
+    }
+
+}
@@ -0,0 +1,60 @@
+package tests;
+
+import main.GamePawnType;
+import main.GameSpriteCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Dedicated to testing the cache of the scaled pawn images. The sprite has to be reused while
+ * the size stays the same, replaced when it changes and drawn as the placeholder until
+ * the image is loaded.
+ */
+public class GameSpriteCacheTest {
+
+    private static GameSpriteCache createCache() {
+        return new GameSpriteCache(Map.of(GamePawnType.WhitePawn,
+                new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    @Test
+    public void testIfSpriteIsReused() {
+        var cache = createCache();
+        var sprite = cache.get(GamePawnType.WhitePawn, 90, 90, null);
+        Assertions.assertEquals(90, sprite.getWidth());
+        Assertions.assertEquals(90, sprite.getHeight());
+        Assertions.assertSame(sprite, cache.get(GamePawnType.WhitePawn, 90, 90, null));
+    }
+
+    @Test
+    public void testIfSpriteIsScaledAgainAfterResize() {
+        var cache = createCache();
+        var sprite = cache.get(GamePawnType.WhitePawn, 90, 90, null);
+        var resized = cache.get(GamePawnType.WhitePawn, 60, 60, null);
+        Assertions.assertNotSame(sprite, resized);
+        Assertions.assertEquals(60, resized.getWidth());
+    }
+
+    @Test
+    public void testIfBlankTileGivesNoSprite() {
+        var cache = createCache();
+        Assertions.assertFalse(cache.contains(GamePawnType.Blank));
+        Assertions.assertNull(cache.get(GamePawnType.Blank, 90, 90, null));
+    }
+
+    @Test
+    public void testIfPlaceholderIsReplacedByLoadedImage() {
+        var images = new EnumMap<GamePawnType, BufferedImage>(GamePawnType.class);
+        var cache = new GameSpriteCache(images);
+        var placeholder = cache.get(GamePawnType.BlackQueen, 90, 90, null);
+        Assertions.assertNotNull(placeholder);
+        images.put(GamePawnType.BlackQueen, new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB));
+        cache.clear();
+        Assertions.assertNotSame(placeholder, cache.get(GamePawnType.BlackQueen, 90, 90, null));
+    }
+
+}
@@ -1,6 +1,7 @@
 package tests;
 
 import main.GameMoveResult;
+import main.GamePawnType;
 import main.GamePlayerType;
 import main.GamePosition;
 import main.GameState;
@@ -19,13 +20,33 @@ import java.util.stream.IntStream;
  */
 public class GameStateCaptureTest {
 
+    /**
+     * Tells which implementation of the game rules is tested. Overridden by the suites
+     * of the other backends.
+     */
+    protected GameState.Backend getBackend() {
+        return GameState.Backend.Native;
+    }
+
+    protected GameState createState() {
+        return GameState.create(getBackend());
+    }
+
+    protected GameState createState(GamePawnType[] state, GamePlayerType player) {
+        return createState(new GameState.Initializer(state, player));
+    }
+
+    protected GameState createState(GameState.Initializer initializer) {
+        return GameState.create(getBackend(), initializer);
+    }
+
     /**
      * In order to quickly check scenarios this computes all the moves from given position
      * and checks whether only the ones specified as correct are validated whereas other should
      * be marked as incorrect. The correct moves are also investigated in terms of correct capturing
      * of the opponents pawns if such occurred.
      */
-    private static class ScenarioTester {
+    private class ScenarioTester {
 
         private final StringState state;
         private final GamePlayerType player;
@@ -47,12 +68,12 @@ public class GameStateCaptureTest {
         }
 
         public Collection<DynamicTest> test() {
-            return IntStream.range(0, 63).mapToObj(i -> new GamePosition(i / 8, i % 8))
+            return IntStream.range(0, 63).mapToObj(i -> GamePosition.of(i))
                     .map(position -> DynamicTest.dynamicTest(
                             moveMap.containsKey(position) ? "Correct move to " + position
                                     : "Incorrect move to " + position,
                             () -> {
-                                GameState st = new GameState(state.getState(), player);
+                                GameState st = createState(state.getState(), player);
                                 GameMoveResult result = st.process(startingPosition, position);
                                 if (moveMap.containsKey(position)) {
                                     Assertions.assertTrue(result.isCorrect());
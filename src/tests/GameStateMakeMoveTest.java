@@ -0,0 +1,37 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Dedicated to testing the reversible moves of the native backend. The native module has
+ * no moves to take back, so GameState plays them by reading and initializing its board again.
+ */
+public class GameStateMakeMoveTest {
+
+    @TestFactory
+    public Collection<DynamicTest> testMakeAndUnmakeRestoreTheBoard() {
+        return Stream.of(GamePlayerType.White, GamePlayerType.Black)
+                .map(player -> DynamicTest.dynamicTest(
+                        "Make and unmake moves of " + player,
+                        () -> GameMakeMoveTest.checkMoves(GameState.create(GameState.Backend.Native,
+                                new GameState.Initializer(new StringState(
+                                        """
+                                        -- -- -- -- -- -- -- --
+                                        Bp -- -- -- Bp -- -- --
+                                        -- -- -- Wp -- -- -- --
+                                        -- -- -- -- -- -- Bp --
+                                        -- -- -- -- -- Wp -- --
+                                        -- -- -- -- Bp -- Bq --
+                                        -- Wq -- Bp -- -- -- Wp
+                                        -- -- -- -- -- -- -- --
+                                        """
+                                ).getState(), player)), 2)
+                )).toList();
+    }
+
+}
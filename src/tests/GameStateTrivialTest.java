@@ -3,6 +3,7 @@ package tests;
 import main.*;
 import org.junit.jupiter.api.*;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -21,11 +22,33 @@ import java.util.stream.Stream;
  * @8 transformation from the pawn to the queen works correctly
  * @9 moving backwards is incorrect
  * @10 default board initialisation works correctly.
+ * @11 board snapshot matches the board read tile by tile.
+ * @12 batch processing gives the same results and board as processing moves one by one.
  */
 public class GameStateTrivialTest {
 
     private List<GamePosition> samplePositions;
 
+    /**
+     * Tells which implementation of the game rules is tested. Overridden by the suites
+     * of the other backends.
+     */
+    protected GameState.Backend getBackend() {
+        return GameState.Backend.Native;
+    }
+
+    protected GameState createState() {
+        return GameState.create(getBackend());
+    }
+
+    protected GameState createState(GamePawnType[] state, GamePlayerType player) {
+        return createState(new GameState.Initializer(state, player));
+    }
+
+    protected GameState createState(GameState.Initializer initializer) {
+        return GameState.create(getBackend(), initializer);
+    }
+
     @BeforeEach
     public void setUp() {
         samplePositions = List.of(new GamePosition[]{
@@ -39,7 +62,7 @@ public class GameStateTrivialTest {
 
     @Test
     public void testIfBoardInitializesCorrectly() {
-        var state = new GameState();
+        var state = createState();
         for (int i = 0; i < 64; i++) {
             int row = i / 8;
             int col = i % 8;
@@ -78,7 +101,7 @@ public class GameStateTrivialTest {
                 """
         );
         GamePawnType[] tiles = descriptor.getState();
-        GameState state = new GameState(tiles, GamePlayerType.Black);
+        GameState state = createState(tiles, GamePlayerType.Black);
         Assertions.assertEquals(
                 3, state.getBlackPawnsAmount()
         );
@@ -99,7 +122,7 @@ public class GameStateTrivialTest {
 
     @TestFactory
     public Collection<DynamicTest> testMovingFromBlackTiles() {
-        GameState state = new GameState();
+        GameState state = createState();
         return IntStream.range(0, 64)
                 .mapToObj(i -> new int[]{i / 8, i % 8, (i + i / 8) % 2})
                 .filter(arr -> arr[2] == 0)
@@ -114,7 +137,7 @@ public class GameStateTrivialTest {
 
     @TestFactory
     public Collection<DynamicTest> testMovingToBlackTiles() {
-        GameState state = new GameState();
+        GameState state = createState();
         return IntStream.range(0, 64)
                 .mapToObj(i -> new int[]{i / 8, i % 8, (i + i / 8) % 2})
                 .filter(arr -> arr[2] == 0)
@@ -145,7 +168,7 @@ public class GameStateTrivialTest {
                     return DynamicTest.dynamicTest(
                             "Correct move from " + from + " to " + to,
                             () -> {
-                                GameState state = new GameState();
+                                GameState state = createState();
                                 Assertions.assertTrue(state.process(from, to).isCorrect());
                             }
                     );
@@ -170,7 +193,7 @@ public class GameStateTrivialTest {
                     return DynamicTest.dynamicTest(
                             "Correct move from " + from + " to " + to,
                             () -> {
-                                GameState state = new GameState();
+                                GameState state = createState();
                                 Assertions.assertFalse(state.process(from, to).isCorrect());
                             }
                     );
@@ -192,13 +215,13 @@ public class GameStateTrivialTest {
                 .map((dir) -> new GamePosition(from.row() + dir.row(),
                             from.col() + dir.col())))
                 .toList();
-        return IntStream.range(0, 63).mapToObj(i -> new GamePosition(i / 8, i % 8))
+        return IntStream.range(0, 63).mapToObj(i -> GamePosition.of(i))
                 .filter(position -> !allowed.contains(position))
                 .flatMap(position -> Stream.of(froms)
                         .map(from -> DynamicTest.dynamicTest(
                                 "Incorrect move from " + from + " to " + position,
                                 () -> {
-                                    GameState state = new GameState();
+                                    GameState state = createState();
                                     Assertions.assertFalse(state.process(from, position).isCorrect());
                                 }
                         )))
@@ -223,7 +246,7 @@ public class GameStateTrivialTest {
                     return DynamicTest.dynamicTest(
                             "Correct move from " + from + " to " + to,
                             () -> {
-                                GameState state = new GameState();
+                                GameState state = createState();
                                 state.process(new GamePosition(5, 2), new GamePosition(4, 3));
                                 Assertions.assertTrue(state.process(from, to).isCorrect());
                             }
@@ -246,7 +269,7 @@ public class GameStateTrivialTest {
                 -- -- -- -- -- -- -- Wp
                 """
             );
-            var state = new GameState(descriptor.getState(), GamePlayerType.White);
+            var state = createState(descriptor.getState(), GamePlayerType.White);
             GamePosition from = new GamePosition(4, 1);
             GamePosition to = new GamePosition(2, 3);
             Assertions.assertEquals(
@@ -265,7 +288,7 @@ public class GameStateTrivialTest {
                     -- -- -- -- -- -- -- --
                     """
             );
-            var state = new GameState(descriptor.getState(), GamePlayerType.Black);
+            var state = createState(descriptor.getState(), GamePlayerType.Black);
             GamePosition from = new GamePosition(3, 2);
             GamePosition to = new GamePosition(5, 4);
             Assertions.assertEquals(
@@ -284,7 +307,7 @@ public class GameStateTrivialTest {
                     -- -- -- -- -- -- Wp --
                     """
             );
-            var state = new GameState(descriptor.getState(), GamePlayerType.White);
+            var state = createState(descriptor.getState(), GamePlayerType.White);
             GamePosition from = new GamePosition(4, 1);
             GamePosition to = new GamePosition(2, 3);
             Assertions.assertEquals(
@@ -303,7 +326,7 @@ public class GameStateTrivialTest {
                     -- -- -- -- -- -- Wp --
                     """
             );
-            var state = new GameState(descriptor.getState(), GamePlayerType.White);
+            var state = createState(descriptor.getState(), GamePlayerType.White);
             GamePosition from = new GamePosition(4, 1);
             GamePosition to = new GamePosition(2, 3);
             state.process(from, to);
@@ -343,7 +366,7 @@ public class GameStateTrivialTest {
                 Wp -- Wp -- Wp -- Wp --
                 """
         );
-        GameState state = new GameState(example.getState(), GamePlayerType.White);
+        GameState state = createState(example.getState(), GamePlayerType.White);
         state.reset();
         GamePawnType[] tilesInInitialState = init.getState();
         for (int i = 0; i < tilesInInitialState.length; i++) {
@@ -422,7 +445,7 @@ public class GameStateTrivialTest {
         return IntStream.range(0, states.length).mapToObj(i -> DynamicTest.dynamicTest(
                 "Test queen transformation (" + i + ")",
                 () -> {
-                    GameState state = new GameState(states[i].getState(),
+                    GameState state = createState(states[i].getState(),
                             i % 2 == 0 ? GamePlayerType.White : GamePlayerType.Black);
                     Assertions.assertTrue(state.process(froms[i], tos[i]).isQueen());
                 }
@@ -495,16 +518,112 @@ public class GameStateTrivialTest {
                     states[i].getState(),
                     i % 2 == 0 ? GamePlayerType.White : GamePlayerType.Black
             );
-            state = new GameState(initializer);
+            state = createState(initializer);
             int dir = state.getCurrentPlayer() == GamePlayerType.Black ? -1 : 1;
             res = state.process(froms[i],
                     new GamePosition(froms[i].row() + dir, froms[i].col() + 1));
             Assertions.assertFalse(res.isCorrect());
-            state = new GameState(initializer);
+            state = createState(initializer);
             res = state.process(froms[i],
                     new GamePosition(froms[i].row() + dir, froms[i].col() - 1));
             Assertions.assertFalse(res.isCorrect());
         }
     }
 
+    @Test
+    public void testIfSnapshotMatchesTheBoard() {
+        var descriptor = new StringState(
+                """
+                Bq -- -- Wp -- -- Wp --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- Bp -- -- -- -- --
+                -- -- -- -- Bp -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- Wp -- -- --
+                -- Wq -- -- -- -- -- Wp
+                """
+        );
+        GameState state = createState(descriptor.getState(), GamePlayerType.Black);
+        byte[] snapshot = new byte[GameState.SNAPSHOT_SIZE];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(GameState.SNAPSHOT_SIZE + 1).position(1);
+        state.snapshot(snapshot);
+        state.snapshot(buffer);
+        Assertions.assertEquals(1, buffer.position());
+        for (int i = 0; i < 64; i++) {
+            var expected = state.get(GamePosition.of(i)).ordinal();
+            Assertions.assertEquals(expected, snapshot[i]);
+            Assertions.assertEquals(expected, buffer.get(i + 1));
+        }
+        Assertions.assertEquals(GamePlayerType.Black.ordinal(), snapshot[GameState.SNAPSHOT_PLAYER]);
+        Assertions.assertEquals(5, snapshot[GameState.SNAPSHOT_WHITE_PAWNS]);
+        Assertions.assertEquals(3, snapshot[GameState.SNAPSHOT_BLACK_PAWNS]);
+        Assertions.assertEquals(3, buffer.get(GameState.SNAPSHOT_BLACK_PAWNS + 1));
+    }
+
+    @Test
+    public void testIfBatchProcessingMatchesSingleMoves() {
+        GamePosition[] line = new GamePosition[]{
+                new GamePosition(5, 2), new GamePosition(4, 3),
+                new GamePosition(2, 5), new GamePosition(3, 4),
+                new GamePosition(4, 3), new GamePosition(2, 5),
+                new GamePosition(1, 4), new GamePosition(3, 6),
+                new GamePosition(7, 0), new GamePosition(6, 1),
+                new GamePosition(5, 0), new GamePosition(4, 1),
+        };
+        short[] moves = new short[line.length / 2];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (short) (line[2 * i].getIndex(8) | line[2 * i + 1].getIndex(8) << 6);
+        }
+        GameState batchState = createState();
+        long[] results = new long[moves.length];
+        Assertions.assertEquals(5, batchState.processBatch(moves, 0, moves.length, results));
+
+        GameState state = createState();
+        for (int i = 0; i < 5; i++) {
+            GameMoveResult result = state.process(line[2 * i], line[2 * i + 1]);
+            Assertions.assertEquals(result.isCorrect(), GameMoveResult.isCorrect(results[i]));
+            Assertions.assertEquals(result.isQueen(), GameMoveResult.isQueen(results[i]));
+            Assertions.assertEquals(result.winner(), GameMoveResult.winner(results[i]));
+            Assertions.assertEquals(result.takenPawns().length,
+                    GameMove.capturedAmount(GameMoveResult.move(results[i])));
+        }
+        Assertions.assertFalse(GameMoveResult.isCorrect(results[4]));
+        for (int i = 0; i < 64; i++) {
+            var position = GamePosition.of(i);
+            Assertions.assertEquals(state.get(position), batchState.get(position));
+        }
+        Assertions.assertEquals(state.getCurrentPlayer(), batchState.getCurrentPlayer());
+    }
+
+    @Test
+    public void testIfPackedResultMatchesTheRecord() {
+        GamePosition[] line = new GamePosition[]{
+                GamePosition.of(5, 2), GamePosition.of(4, 3),
+                GamePosition.of(2, 5), GamePosition.of(3, 4),
+                GamePosition.of(4, 3), GamePosition.of(2, 5),
+                GamePosition.of(1, 4), GamePosition.of(3, 6),
+                GamePosition.of(7, 0), GamePosition.of(6, 1),
+        };
+        GameState packedState = createState();
+        GameState state = createState();
+        for (int i = 0; i < line.length; i += 2) {
+            long packed = packedState.processPacked(line[i], line[i + 1]);
+            GameMoveResult result = state.process(line[i], line[i + 1]);
+            Assertions.assertEquals(result.isCorrect(), GameMoveResult.isCorrect(packed));
+            if (!result.isCorrect()) continue;
+            long taken = 0;
+            for (GamePosition position : result.takenPawns()) {
+                taken |= 1L << position.square();
+            }
+            long move = GameMoveResult.move(packed);
+            Assertions.assertEquals(taken, GameMove.captured(move));
+            Assertions.assertEquals(result.isQueen(), GameMove.isPromotion(move));
+            Assertions.assertEquals(result.winner(), GameMoveResult.winner(packed));
+            Assertions.assertEquals(line[i].square(), GameMove.from(move));
+            Assertions.assertEquals(line[i + 1].square(), GameMove.to(move));
+        }
+        Assertions.assertEquals(state.getCurrentPlayer(), packedState.getCurrentPlayer());
+    }
+
 }
@@ -0,0 +1,219 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Dedicated to testing the endgame tablebase. Value of every position has to follow from
+ * the values of the positions after its moves, and the search has to score the endgames
+ * by their distance.
+ */
+public class GameTablebaseTest {
+
+    private static final int PIECES = 3;
+    private static final int POSITIONS = 3000;
+    private static final GameTablebase TABLEBASE = new GameTablebaseGenerator(PIECES, 2).generate();
+
+    /**
+     * Places up to PIECES pieces on the dark tiles, pawns never on their promotion row.
+     */
+    private static GameBitboardState randomPosition(SplittableRandom random) {
+        GamePawnType[] board = new GamePawnType[64];
+        Arrays.fill(board, GamePawnType.Blank);
+        int white = 1 + random.nextInt(PIECES - 1);
+        int black = 1 + random.nextInt(PIECES - white);
+        for (int i = 0; i < white + black; i++) {
+            boolean isQueen = random.nextInt(3) == 0;
+            GamePawnType type = i < white ? (isQueen ? GamePawnType.WhiteQueen : GamePawnType.WhitePawn)
+                    : (isQueen ? GamePawnType.BlackQueen : GamePawnType.BlackPawn);
+            int square;
+            do {
+                square = random.nextInt(64);
+            } while ((square / 8 + square % 8) % 2 == 0 || board[square] != GamePawnType.Blank
+                    || type == GamePawnType.WhitePawn && square < 8 || type == GamePawnType.BlackPawn && square >= 56);
+            board[square] = type;
+        }
+        return new GameBitboardState(board, random.nextBoolean() ? GamePlayerType.White : GamePlayerType.Black);
+    }
+
+    @Test
+    public void testIfValuesFollowFromTheMoves() {
+        var random = new SplittableRandom(17);
+        var moves = new GameMoveList();
+        for (int i = 0; i < POSITIONS; i++) {
+            GameBitboardState state = randomPosition(random);
+            int value = TABLEBASE.probe(state);
+            Assertions.assertNotEquals(GameTablebase.MISSING, value);
+
+            int amount = state.generateMoves(moves);
+            int fastestWin = Integer.MAX_VALUE;
+            int slowestLoss = -1;
+            boolean hasDraw = false;
+            for (int j = 0; j < amount; j++) {
+                long undo = state.makeMove(moves.get(j));
+                int next = TABLEBASE.probe(state);
+                state.unmakeMove(moves.get(j), undo);
+                if (GameTablebase.isLoss(next)) fastestWin = Math.min(fastestWin, GameTablebase.distance(next) + 1);
+                else if (GameTablebase.isWin(next)) slowestLoss = Math.max(slowestLoss, GameTablebase.distance(next) + 1);
+                else hasDraw = true;
+            }
+            if (fastestWin != Integer.MAX_VALUE) {
+                Assertions.assertEquals(fastestWin, value);
+            } else if (hasDraw) {
+                Assertions.assertEquals(GameTablebase.DRAW, value);
+            } else {
+                Assertions.assertEquals(-Math.max(slowestLoss, 0) - 1, value);
+            }
+        }
+    }
+
+    @Test
+    public void testIfKnownPositionsAreSolved() {
+        var capture = new GameBitboardState(new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- Bp -- -- --
+                -- -- -- -- -- Wp -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                """
+        ).getState(), GamePlayerType.White);
+        Assertions.assertEquals(1, TABLEBASE.probe(capture));
+        long move = TABLEBASE.bestMove(capture);
+        Assertions.assertEquals(1, GameMove.capturedAmount(move));
+
+        var blocked = new GameBitboardState(new StringState(
+                """
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                -- -- -- -- -- -- -- --
+                Bp -- -- -- -- -- -- --
+                -- Wp -- -- -- -- -- --
+                -- -- Wp -- -- -- -- --
+                """
+        ).getState(), GamePlayerType.Black);
+        Assertions.assertEquals(-1, TABLEBASE.probe(blocked));
+
+        Assertions.assertEquals(GameTablebase.MISSING, TABLEBASE.probe(new GameBitboardState()));
+    }
+
+    @Test
+    public void testIfSearchScoresTheEndgames() {
+        var random = new SplittableRandom(23);
+        for (int i = 0; i < 100; i++) {
+            GameBitboardState state = randomPosition(random);
+            int value = TABLEBASE.probe(state);
+            if (!GameTablebase.isWin(value)) continue;
+            var search = new GameSearch(state);
+            search.setTablebase(TABLEBASE);
+            GameSearchResult result = search.search(10_000, 2);
+            Assertions.assertEquals(GameSearch.WIN - GameTablebase.distance(value), result.score());
+        }
+    }
+
+    /**
+     * Rewrites the stored tables with every win and loss longer by the given amount of plies,
+     * which keeps the values following from the moves.
+     */
+    private static void lengthen(Path directory, int plies) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                int magic, signature;
+                byte version;
+                byte[] table;
+                try (var input = new DataInputStream(new GZIPInputStream(Files.newInputStream(path)))) {
+                    magic = input.readInt();
+                    version = input.readByte();
+                    signature = input.readShort();
+                    table = new byte[input.readInt()];
+                    input.readFully(table);
+                }
+                for (int i = 0; i < table.length; i++) {
+                    if (GameTablebase.isWin(table[i])) table[i] += plies;
+                    else if (GameTablebase.isLoss(table[i])) table[i] -= plies;
+                }
+                try (var output = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(path)))) {
+                    output.writeInt(magic);
+                    output.writeByte(version);
+                    output.writeShort(signature);
+                    output.writeInt(table.length);
+                    output.write(table);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIfDeeperSearchScoresTheLongEndgames() throws IOException {
+        Path directory = Files.createTempDirectory("tablebase");
+        try {
+            TABLEBASE.write(directory);
+            // Longer than MAX_PLY, but still within the distances of the tables
+            lengthen(directory, 100);
+            GameTablebase tablebase = GameTablebase.read(directory);
+            var random = new SplittableRandom(31);
+            int wins = 0;
+            for (int i = 0; i < 100; i++) {
+                GameBitboardState state = randomPosition(random);
+                int value = tablebase.probe(state);
+                // Capture of the last piece isn't read from the tables, so it stays a win in one ply
+                if (!GameTablebase.isWin(value) || TABLEBASE.probe(state) == 1) continue;
+                Assertions.assertTrue(GameTablebase.distance(value) > GameSearch.MAX_PLY);
+                var search = new GameSearch(state);
+                search.setTablebase(tablebase);
+                GameSearchResult result = search.search(10_000, 6);
+                Assertions.assertEquals(GameSearch.WIN - GameTablebase.distance(value), result.score());
+                // Known result ends the iterative deepening
+                Assertions.assertEquals(1, result.depth());
+                wins++;
+            }
+            Assertions.assertTrue(wins > 0);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIfTablesAreReadBack() throws IOException {
+        Path directory = Files.createTempDirectory("tablebase");
+        try {
+            TABLEBASE.write(directory);
+            GameTablebase read = GameTablebase.read(directory);
+            Assertions.assertEquals(PIECES, read.getPieces());
+            var random = new SplittableRandom(29);
+            for (int i = 0; i < POSITIONS; i++) {
+                GameBitboardState state = randomPosition(random);
+                Assertions.assertEquals(TABLEBASE.probe(state), read.probe(state));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+}
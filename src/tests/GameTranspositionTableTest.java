@@ -0,0 +1,65 @@
+package tests;
+
+import main.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Dedicated to testing the transposition table. Covers reading back the stored entries,
+ * the misses of the other keys sharing the slot and both replacement policies.
+ */
+public class GameTranspositionTableTest {
+
+    private static final long MOVE = GameMove.encode(42, 33, false, 0);
+
+    @Test
+    public void testIfStoredEntryIsRead() {
+        var table = new GameTranspositionTable(1024);
+        long key = 0x123456789ABCDEFL;
+        Assertions.assertEquals(0, table.probe(key));
+        table.store(key, 7, -GameSearch.WIN + 3, GameTranspositionTable.UPPER, MOVE);
+        long entry = table.probe(key);
+        Assertions.assertNotEquals(0, entry);
+        Assertions.assertEquals(7, GameTranspositionTable.depth(entry));
+        Assertions.assertEquals(-GameSearch.WIN + 3, GameTranspositionTable.score(entry));
+        Assertions.assertEquals(GameTranspositionTable.UPPER, GameTranspositionTable.bound(entry));
+        Assertions.assertTrue(GameTranspositionTable.isMove(entry, MOVE));
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    public void testIfOtherKeyInTheSlotIsMissed() {
+        var table = new GameTranspositionTable(1024);
+        table.store(5, 3, 100, GameTranspositionTable.EXACT, MOVE);
+        Assertions.assertEquals(0, table.probe(5 + (1L << 40)));
+    }
+
+    @Test
+    public void testIfDeeperEntryIsPreferred() {
+        var table = new GameTranspositionTable(1024, GameTranspositionTable.Replacement.DepthPreferred);
+        long deep = 5;
+        long shallow = 5 + (1L << 40);
+        table.store(deep, 8, 100, GameTranspositionTable.EXACT, MOVE);
+        table.store(shallow, 2, 50, GameTranspositionTable.EXACT, MOVE);
+        Assertions.assertNotEquals(0, table.probe(deep));
+        Assertions.assertEquals(0, table.probe(shallow));
+        // Entries of the previous search are replaced anyway
+        table.newSearch();
+        table.store(shallow, 2, 50, GameTranspositionTable.EXACT, MOVE);
+        Assertions.assertEquals(0, table.probe(deep));
+        Assertions.assertEquals(50, GameTranspositionTable.score(table.probe(shallow)));
+    }
+
+    @Test
+    public void testIfNewestEntryIsAlwaysKept() {
+        var table = new GameTranspositionTable(1024, GameTranspositionTable.Replacement.Always);
+        long deep = 5;
+        long shallow = 5 + (1L << 40);
+        table.store(deep, 8, 100, GameTranspositionTable.EXACT, MOVE);
+        table.store(shallow, 2, 50, GameTranspositionTable.EXACT, MOVE);
+        Assertions.assertEquals(0, table.probe(deep));
+        Assertions.assertNotEquals(0, table.probe(shallow));
+    }
+
+}
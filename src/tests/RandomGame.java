@@ -0,0 +1,64 @@
+package tests;
+
+import main.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Game of random moves taken from generateMoves, which is shared by the tests of the game
+ * log and of the files built from it. Moves are packed as in GameState.processBatch and
+ * the game ends with the winner, with no moves left or after the given amount of moves.
+ * @param start Board the game has started from, null for the initial one
+ * @param player Player who has made the first move
+ * @param winner Winner of the game, None if it has not ended
+ * @param moves Played moves
+ * @param end Snapshot of the board after the last move
+ */
+public record RandomGame(GamePawnType[] start, GamePlayerType player, GamePlayerType winner,
+                         short[] moves, byte[] end) {
+
+    public static RandomGame play(GameState state, SplittableRandom random, int maxLength) {
+        return play(state, random, maxLength, null, GamePlayerType.White);
+    }
+
+    public static RandomGame play(GameState state, SplittableRandom random, int maxLength,
+                                  GamePawnType[] start, GamePlayerType player) {
+        if (start == null) state.reset();
+        else state.init(start, player);
+        GameMoveList list = new GameMoveList();
+        short[] moves = new short[maxLength];
+        int length = 0;
+        GamePlayerType winner = GamePlayerType.None;
+        while (length < moves.length && state.generateMoves(list) > 0) {
+            long move = list.get(random.nextInt(list.size()));
+            moves[length++] = (short) (GameMove.from(move) | GameMove.to(move) << 6);
+            winner = state.process(GameMove.fromPosition(move), GameMove.toPosition(move)).winner();
+            if (winner != GamePlayerType.None) break;
+        }
+        byte[] end = new byte[GameState.SNAPSHOT_SIZE];
+        state.snapshot(end);
+        return new RandomGame(start, player, winner, Arrays.copyOf(moves, length), end);
+    }
+
+    /**
+     * Puts the state back to the start of the game.
+     */
+    public void reset(GameState state) {
+        if (start == null) state.reset();
+        else state.init(start, player);
+    }
+
+    /**
+     * Processes the move of the given index on the state.
+     */
+    public GameMoveResult process(GameState state, int index) {
+        return state.process(GamePosition.of(moves[index] & 0x3F), GamePosition.of((moves[index] >>> 6) & 0x3F));
+    }
+
+    public void write(GameRecordWriter writer) throws IOException {
+        writer.write(start, player, winner, moves, 0, moves.length);
+    }
+
+}